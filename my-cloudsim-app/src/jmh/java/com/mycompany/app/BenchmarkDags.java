@@ -0,0 +1,43 @@
+package com.mycompany.app;
+
+import org.cloudbus.cloudsim.cloudlets.Cloudlet;
+import org.cloudbus.cloudsim.cloudlets.CloudletSimple;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+// Seeded DAGs for the benchmarks. TaskDagGenerator.generateRandomDAG runs a CloudSim simulation for
+// the deadlines and draws O(n^2) edges, which would dominate every benchmark that only needs an
+// input DAG, so this builds one with the same task lengths, a few parents per task and
+// deadlines taken from the critical path length.
+final class BenchmarkDags {
+
+    private BenchmarkDags() {}
+
+    static List<App.TaskNode> random(int taskCount, long seed) {
+        SplittableRandom rnd = new SplittableRandom(seed);
+        List<App.TaskNode> dag = new ArrayList<>(taskCount);
+        double[] finish = new double[taskCount];
+
+        for (int i = 0; i < taskCount; i++) {
+            long length = 8000 + (i * 10);
+            Cloudlet cl = new CloudletSimple(length, 2);
+            cl.setSizes(1024);
+            App.TaskNode task = new App.TaskNode(i, cl);
+
+            double ready = 0;
+            int parents = i == 0 ? 0 : 1 + rnd.nextInt(Math.min(i, 3));
+            for (int k = 0; k < parents; k++) {
+                App.TaskNode parent = dag.get(Math.max(0, i - 1 - rnd.nextInt(Math.min(i, 50))));
+                if (task.parents.contains(parent)) continue;
+                task.addDependency(parent);
+                ready = Math.max(ready, finish[parent.id]);
+            }
+            finish[i] = ready + length / 1000.0;
+            task.deadline = finish[i] - 10 + rnd.nextDouble() * 20;
+            dag.add(task);
+        }
+        return dag;
+    }
+}
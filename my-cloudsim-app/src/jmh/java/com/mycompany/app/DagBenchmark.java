@@ -0,0 +1,71 @@
+package com.mycompany.app;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// DAG construction and the upward/downward rank passes used by Random-CPOP.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DagBenchmark {
+
+    @Param({"100", "500", "1000", "5000"})
+    int tasks;
+
+    private List<App.TaskNode> dag;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        dag = BenchmarkDags.random(tasks, 42);
+    }
+
+    // The ranks are memoised on the nodes, so every invocation starts from a cleared DAG.
+    @Setup(Level.Invocation)
+    public void clearRanks() {
+        for (App.TaskNode node : dag) node.rankU = node.rankD = -1;
+    }
+
+    // Includes the CloudSim run that assigns the deadlines; at 5000 tasks expect seconds per call.
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 1)
+    @Measurement(iterations = 3)
+    public List<App.TaskNode> generateRandomDAG() {
+        return TaskDagGenerator.generateRandomDAG(tasks);
+    }
+
+    @Benchmark
+    public List<App.TaskNode> layeredDag() {
+        return DagGenerator.builder().tasks(tasks).layered(Math.max(1, tasks / 100), 0.05).seed(42).build().generate();
+    }
+
+    @Benchmark
+    public List<App.TaskNode> deepCopyDag() {
+        return TaskDagGenerator.deepCopyDag(dag);
+    }
+
+    @Benchmark
+    public double computeRanks() {
+        double sum = 0;
+        for (App.TaskNode node : dag) sum += SimulationUtils.computeRankU(node);
+        for (App.TaskNode node : dag) sum += SimulationUtils.computeRankD(node);
+        return sum;
+    }
+
+    @Benchmark
+    public GraphAnalysis graphAnalysis() {
+        TaskGraph graph = TaskGraph.of(dag);
+        return GraphAnalysis.of(graph, graph.length);
+    }
+
+    @Benchmark
+    public TaskGraph taskGraph() {
+        return TaskGraph.of(dag);
+    }
+}
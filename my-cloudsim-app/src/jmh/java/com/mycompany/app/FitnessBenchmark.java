@@ -0,0 +1,85 @@
+package com.mycompany.app;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// The PSO inner loop: a full fitness evaluation per engine, the incremental load-proxy update after
+// a 1% move, and the per-VM order regeneration done after every move.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FitnessBenchmark {
+
+    @Param({"100", "500", "1000", "5000"})
+    int tasks;
+
+    @Param({"10", "50", "100"})
+    int vms;
+
+    private int[] mapping, orderStart, orderTasks, perm, cursor;
+    private int[] changed, changedFrom;
+    private FitnessEngine.Evaluator loadProxy, listSchedule;
+    private LoadProxyFitness.State incremental;
+    private SplittableRandom rnd;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        TaskGraph graph = TaskGraph.of(BenchmarkDags.random(tasks, 42));
+        rnd = new SplittableRandom(7);
+
+        mapping = new int[tasks];
+        perm = new int[tasks];
+        for (int t = 0; t < tasks; t++) {
+            mapping[t] = rnd.nextInt(vms);
+            perm[t] = t;
+        }
+        orderStart = new int[vms + 1];
+        orderTasks = new int[tasks];
+        cursor = new int[vms];
+        PSOScheduler.groupByVm(mapping, perm, vms, orderStart, orderTasks, cursor);
+
+        loadProxy = FitnessEngine.LOAD_PROXY.create(graph, vms).newEvaluator();
+        listSchedule = FitnessEngine.LIST_SCHEDULE.create(graph, vms).newEvaluator();
+        incremental = new LoadProxyFitness(graph, vms).newEvaluator();
+        incremental.evaluate(mapping, orderStart, orderTasks);
+
+        changed = new int[tasks];
+        changedFrom = new int[tasks];
+    }
+
+    @Benchmark
+    public double loadProxyFull() {
+        return loadProxy.evaluate(mapping, orderStart, orderTasks);
+    }
+
+    @Benchmark
+    public double loadProxyIncremental() {
+        // Move a distinct 1% of the tasks, as a late-run PSO step does.
+        int count = Math.max(1, tasks / 100);
+        int first = rnd.nextInt(tasks);
+        for (int k = 0; k < count; k++) {
+            int t = (first + k) % tasks;
+            changed[k] = t;
+            changedFrom[k] = mapping[t];
+            mapping[t] = rnd.nextInt(vms);
+        }
+        PSOScheduler.groupByVm(mapping, perm, vms, orderStart, orderTasks, cursor);
+        return incremental.update(mapping, orderStart, orderTasks, changed, changedFrom, count);
+    }
+
+    @Benchmark
+    public double listSchedule() {
+        return listSchedule.evaluate(mapping, orderStart, orderTasks);
+    }
+
+    @Benchmark
+    public int[] vmOrder() {
+        PSOScheduler.groupByVm(mapping, perm, vms, orderStart, orderTasks, cursor);
+        return orderTasks;
+    }
+}
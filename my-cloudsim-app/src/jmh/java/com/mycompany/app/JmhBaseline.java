@@ -0,0 +1,181 @@
+package com.mycompany.app;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+// Compares a JMH JSON result file (-rf json) against a committed baseline and fails when a benchmark
+// got slower, or allocates more per operation, by more than the threshold:
+//
+//   java -cp ... com.mycompany.app.JmhBaseline jmh/baseline.json target/jmh-result.json [percent]
+//
+// Entries are matched on benchmark name plus parameters; ones present on only one side are listed
+// but never fail the check.
+public class JmhBaseline {
+
+    private static final String ALLOC = "·gc.alloc.rate.norm";
+
+    record Result(String mode, double score, double error, String unit, double allocPerOp) {}
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("usage: JmhBaseline <baseline.json> <current.json> [thresholdPercent]");
+            System.exit(2);
+        }
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) / 100 : 0.10;
+        Map<String, Result> baseline = load(Path.of(args[0]));
+        Map<String, Result> current = load(Path.of(args[1]));
+
+        int regressions = 0;
+        for (var e : current.entrySet()) {
+            Result now = e.getValue();
+            Result before = baseline.get(e.getKey());
+            if (before == null) {
+                System.out.printf("NEW   %-60s %12.3f %s%n", e.getKey(), now.score(), now.unit());
+                continue;
+            }
+
+            // Throughput regresses downwards, every other mode upwards. Differences inside the
+            // combined error bars are noise.
+            double delta = now.score() - before.score();
+            if (now.mode().equals("thrpt")) delta = -delta;
+            boolean slower = delta > threshold * before.score() && delta > noise(now) + noise(before);
+            boolean allocates = !Double.isNaN(now.allocPerOp()) && !Double.isNaN(before.allocPerOp())
+                    && now.allocPerOp() > (1 + threshold) * before.allocPerOp() + 16;
+
+            String tag = slower || allocates ? "WORSE" : "ok";
+            if (slower || allocates) regressions++;
+            System.out.printf("%-5s %-60s %12.3f -> %12.3f %s (%+.1f%%)", tag, e.getKey(),
+                    before.score(), now.score(), now.unit(), 100 * (now.score() - before.score()) / before.score());
+            if (!Double.isNaN(now.allocPerOp())) {
+                System.out.printf(" | alloc %.0f -> %.0f B/op", before.allocPerOp(), now.allocPerOp());
+            }
+            System.out.println();
+        }
+        for (String key : baseline.keySet()) {
+            if (!current.containsKey(key)) System.out.printf("GONE  %s%n", key);
+        }
+
+        System.out.printf("%d regression(s) beyond %.0f%%%n", regressions, threshold * 100);
+        if (regressions > 0) System.exit(1);
+    }
+
+    @SuppressWarnings("unchecked")
+    static Map<String, Result> load(Path file) throws IOException {
+        Map<String, Result> results = new TreeMap<>();
+        for (Object o : (List<Object>) new Json(Files.readString(file)).value()) {
+            Map<String, Object> run = (Map<String, Object>) o;
+            StringBuilder key = new StringBuilder((String) run.get("benchmark"));
+            Object params = run.get("params");
+            if (params != null) {
+                new TreeMap<>((Map<String, Object>) params).forEach((k, v) -> key.append(' ').append(k).append('=').append(v));
+            }
+
+            Map<String, Object> primary = (Map<String, Object>) run.get("primaryMetric");
+            double alloc = Double.NaN;
+            Object secondary = run.get("secondaryMetrics");
+            if (secondary != null && ((Map<String, Object>) secondary).get(ALLOC) instanceof Map<?, ?> m) {
+                alloc = number(m.get("score"));
+            }
+            results.put(key.toString(), new Result((String) run.get("mode"), number(primary.get("score")),
+                    number(primary.get("scoreError")), (String) primary.get("scoreUnit"), alloc));
+        }
+        return results;
+    }
+
+    private static double noise(Result r) {
+        return Double.isNaN(r.error()) ? 0 : r.error();
+    }
+
+    // JMH writes "NaN" as a string for the error of single-iteration runs.
+    private static double number(Object o) {
+        if (o instanceof Number n) return n.doubleValue();
+        return o == null ? Double.NaN : Double.parseDouble(o.toString());
+    }
+
+    // Just enough JSON for JMH result files, so the benchmarks need nothing beyond JMH itself.
+    private static final class Json {
+        private final String s;
+        private int i;
+
+        Json(String s) {
+            this.s = s;
+        }
+
+        Object value() {
+            skip();
+            char c = s.charAt(i);
+            switch (c) {
+                case '{': {
+                    Map<String, Object> map = new LinkedHashMap<>();
+                    i++;
+                    skip();
+                    if (s.charAt(i) == '}') { i++; return map; }
+                    while (true) {
+                        skip();
+                        String k = string();
+                        skip();
+                        expect(':');
+                        map.put(k, value());
+                        skip();
+                        if (s.charAt(i++) == '}') return map;
+                    }
+                }
+                case '[': {
+                    List<Object> list = new ArrayList<>();
+                    i++;
+                    skip();
+                    if (s.charAt(i) == ']') { i++; return list; }
+                    while (true) {
+                        list.add(value());
+                        skip();
+                        if (s.charAt(i++) == ']') return list;
+                    }
+                }
+                case '"':
+                    return string();
+                default: {
+                    int from = i;
+                    while (i < s.length() && ",}] \t\r\n".indexOf(s.charAt(i)) < 0) i++;
+                    String token = s.substring(from, i);
+                    return switch (token) {
+                        case "true" -> Boolean.TRUE;
+                        case "false" -> Boolean.FALSE;
+                        case "null" -> null;
+                        default -> Double.parseDouble(token);
+                    };
+                }
+            }
+        }
+
+        private String string() {
+            expect('"');
+            StringBuilder sb = new StringBuilder();
+            while (true) {
+                char c = s.charAt(i++);
+                if (c == '"') return sb.toString();
+                if (c != '\\') { sb.append(c); continue; }
+                char e = s.charAt(i++);
+                switch (e) {
+                    case 'n' -> sb.append('\n');
+                    case 't' -> sb.append('\t');
+                    case 'r' -> sb.append('\r');
+                    case 'b' -> sb.append('\b');
+                    case 'f' -> sb.append('\f');
+                    case 'u' -> { sb.append((char) Integer.parseInt(s.substring(i, i + 4), 16)); i += 4; }
+                    default -> sb.append(e);
+                }
+            }
+        }
+
+        private void expect(char c) {
+            if (s.charAt(i) != c) throw new IllegalArgumentException("Expected '" + c + "' at offset " + i);
+            i++;
+        }
+
+        private void skip() {
+            while (i < s.length() && Character.isWhitespace(s.charAt(i))) i++;
+        }
+    }
+}
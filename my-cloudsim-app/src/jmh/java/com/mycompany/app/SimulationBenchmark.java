@@ -0,0 +1,41 @@
+package com.mycompany.app;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// One full Random-CPOP CloudSim run, dispatch loop included. Cloudlets cannot be resubmitted, so
+// every invocation gets a fresh copy of the DAG.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class SimulationBenchmark {
+
+    @Param({"100", "500", "1000", "5000"})
+    int tasks;
+
+    @Param({"10", "50", "100"})
+    int vms;
+
+    private List<App.TaskNode> dag;
+    private List<App.TaskNode> copy;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        dag = BenchmarkDags.random(tasks, 42);
+    }
+
+    @Setup(Level.Invocation)
+    public void copyDag() {
+        copy = TaskDagGenerator.deepCopyDag(dag);
+    }
+
+    @Benchmark
+    public SingleSimulationRunner.SimulationResult runSimulation() {
+        return SingleSimulationRunner.runSimulation(copy, vms);
+    }
+}
@@ -0,0 +1,59 @@
+package com.mycompany.app;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// One particle move (velocity update and roulette pick for 500 task rows) with the scalar and the
+// Vector API kernel. The vector kernel needs -Pvector; without it its trials fail in setup instead
+// of silently measuring the scalar fallback.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class VelocityKernelBenchmark {
+
+    private static final int TASKS = 500;
+
+    @Param({"scalar", "vector"})
+    String kernel;
+
+    @Param({"10", "20", "30"})
+    int vms;
+
+    private VelocityKernel impl;
+    private double[] velocity, weights;
+    private int[] pBest, gBest;
+    private SplittableRandom rnd;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        if (kernel.equals("vector") && !VelocityKernel.vectorAvailable()) {
+            throw new IllegalStateException("jdk.incubator.vector is not loaded; run with -Pvector");
+        }
+        impl = kernel.equals("vector") ? VelocityKernel.vectorized() : VelocityKernel.scalar();
+        rnd = new SplittableRandom(1);
+        velocity = new double[TASKS * vms];
+        for (int i = 0; i < velocity.length; i++) velocity[i] = rnd.nextDouble(-1, 1);
+        pBest = new int[TASKS];
+        gBest = new int[TASKS];
+        for (int t = 0; t < TASKS; t++) {
+            pBest[t] = rnd.nextInt(vms);
+            gBest[t] = rnd.nextInt(vms);
+        }
+        weights = new double[vms];
+    }
+
+    @Benchmark
+    public long move() {
+        long picks = 0;
+        for (int t = 0; t < TASKS; t++) {
+            picks += impl.update(velocity, t * vms, vms, pBest[t], gBest[t],
+                    0.9, 1.4, 1.1, 1.0, rnd.nextDouble(), rnd.nextDouble(), rnd.nextDouble(), weights);
+        }
+        return picks;
+    }
+}
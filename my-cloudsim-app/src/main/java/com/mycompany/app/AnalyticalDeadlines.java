@@ -0,0 +1,73 @@
+package com.mycompany.app;
+
+import org.cloudbus.cloudsim.vms.Vm;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.function.ToDoubleFunction;
+
+// Finish-time estimates from the DAG ranks. The schedule length is bounded below by the critical
+// path and by the total work spread over all VMs; the larger of the two is the estimated makespan.
+// A task gets the share of it that its longest path has covered once the task is done:
+//
+//   finish(t) = makespan · rankD(t) / (rankD(t) + rankU(t) - exec(t))
+//
+// rankD(t) runs from the entry through t, rankU(t) from t to the exit, so the denominator is the
+// longest path through t. Tasks on the critical path advance at the makespan's pace; tasks on
+// shorter paths get proportionally more room. Ranks are in seconds on a VM of average speed.
+class AnalyticalDeadlines implements DeadlineModel {
+
+    record Slack(long seed, ToDoubleFunction<SplittableRandom> sample) {}
+
+    private final double mips;
+    private final double vmPes;
+    private final int vmCount;
+    private final Slack slack;
+
+    AnalyticalDeadlines(List<Vm> vms, Slack slack) {
+        if (vms.isEmpty()) throw new IllegalArgumentException("Need at least one VM");
+        double mips = 0, pes = 0;
+        for (Vm vm : vms) {
+            mips += vm.getMips();
+            pes += vm.getNumberOfPes();
+        }
+        this.mips = mips / vms.size();
+        this.vmPes = pes / vms.size();
+        this.vmCount = vms.size();
+        this.slack = slack;
+    }
+
+    @Override
+    public void assign(List<App.TaskNode> dag) {
+        double[] finish = estimateFinish(TaskGraph.of(dag));
+        SplittableRandom rnd = slack == null ? null : new SplittableRandom(slack.seed());
+        // TaskGraph is indexed by id; walk in id order so the slack draws do not depend on list order.
+        App.TaskNode[] byId = new App.TaskNode[dag.size()];
+        for (App.TaskNode node : dag) byId[node.id] = node;
+        for (App.TaskNode node : byId) {
+            double s = rnd == null ? 0 : slack.sample().applyAsDouble(rnd);
+            node.deadline = finish[node.id] * (1 + s);
+        }
+    }
+
+    double[] estimateFinish(TaskGraph g) {
+        int n = g.taskCount;
+        double[] exec = new double[n];
+        double work = 0;
+        for (int t = 0; t < n; t++) {
+            exec[t] = g.length[t] / mips * Math.max(1.0, g.pes[t] / vmPes);
+            work += exec[t];
+        }
+
+        GraphAnalysis ranks = GraphAnalysis.of(g, exec);
+        double[] rankD = ranks.rankD, rankU = ranks.rankU;
+
+        double makespan = Math.max(ranks.criticalPathLength, work / vmCount);
+        double[] finish = new double[n];
+        for (int t = 0; t < n; t++) {
+            double path = rankD[t] + rankU[t] - exec[t];
+            finish[t] = path == 0 ? 0 : makespan * rankD[t] / path;
+        }
+        return finish;
+    }
+}
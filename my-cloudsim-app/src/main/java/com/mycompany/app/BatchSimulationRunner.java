@@ -2,6 +2,7 @@ package com.mycompany.app;
 
 import com.mycompany.app.SingleSimulationRunner.SimulationResult;
 
+import java.nio.file.Path;
 import java.util.*;
 
 public class BatchSimulationRunner {
@@ -23,6 +24,10 @@ public class BatchSimulationRunner {
             this.qosScore = qosScore;
         }
 
+        static Result of(ResultSink.Row row) {
+            return new Result(row.vms(), row.tasks(), row.makespan(), row.missRatio(), row.qos(), row.energy());
+        }
+
         @Override
         public String toString() {
             return String.format(
@@ -32,40 +37,55 @@ public class BatchSimulationRunner {
         }
     }
 
+    record Cell(int tasks, int edge) {
+        @Override
+        public String toString() {
+            return "tasks=" + tasks + " edge=" + edge;
+        }
+    }
+
     public static void main(String[] args) {
         List<Integer> edgeOptions = List.of(10, 20, 30);
         List<Integer> taskCounts = List.of(100, 200, 300, 400, 500);
 
-        List<Result> results = new ArrayList<>();
+        List<Cell> cells = new ArrayList<>();
+        for (int taskCount : taskCounts)
+            for (int edge : edgeOptions) cells.add(new Cell(taskCount, edge));
 
         System.out.println("========== BATCH SIMULATION STARTED ==========");
+        long seed = Long.getLong("sweep.seed", RandomStreams.rootSeed());
+        System.out.printf("Sweep seed: %d (rerun with -Dsweep.seed=%d)\n", seed, seed);
+
+        boolean resume = SweepJournal.resumeRequested();
+        Path dir = ResultSink.runDirectory("batch", seed);
+        System.out.println((resume ? "Resuming " : "Streaming results to ") + dir.toAbsolutePath());
 
-        for (int taskCount : taskCounts) {
-            List<App.TaskNode> dagBase = TaskDagGenerator.generateRandomDAG(taskCount);
-            for (int edge : edgeOptions) {
-                List<App.TaskNode> dagCopy = TaskDagGenerator.deepCopyDag(dagBase);
-                System.out.printf("Running simulation: Tasks = %d, Edge = %d\n", taskCount, edge);
-                SimulationResult simResult = SingleSimulationRunner.runSimulation(dagCopy, edge);
-                Result result = new Result(
-                        edge, taskCount,
-                        simResult.makespan(),
-                        simResult.deadlineMissRatio(),
-                        simResult.qosScore(),
-                        simResult.energy()
-                );
-                results.add(result);
-                System.out.println("Result: " + result);
-                System.out.println("--------------------------------------------------");
-            }
+        List<ResultSink.Row> rows;
+        try (ResultSink sink = ResultSink.open(dir, resume);
+             SweepJournal<ResultSink.Row> journal = SweepJournal.open(dir.resolve("sweep.journal"), seed, cells.size(), ResultSink.Row.CODEC, resume);
+             SweepExecutor sweep = new SweepExecutor(SweepExecutor.defaultParallelism(), seed)) {
+            List<TaskGraph> dags = sweep.run(SweepExecutor.DAG_STREAM, taskCounts, (taskCount, s) ->
+                    TaskGraph.of(TaskDagGenerator.generateRandomDAG(taskCount, DeadlineModel.analytical(20), s)));
+            Map<Integer, TaskGraph> dagBase = new HashMap<>();
+            for (int i = 0; i < taskCounts.size(); i++) dagBase.put(taskCounts.get(i), dags.get(i));
+
+            rows = sweep.run(cells, (cell, s) -> {
+                SimulationResult simResult = SingleSimulationRunner.runSimulation(DagRun.of(dagBase.get(cell.tasks())), cell.edge(), s);
+                ResultSink.Row row = ResultSink.Row.of(cell.toString(), "CPOP", cell.tasks(), cell.edge(), simResult);
+                sink.result(row);
+                System.out.println("Result: " + Result.of(row));
+                return row;
+            }, journal);
         }
 
         System.out.println("\n================== FINAL SUMMARY ==================");
-        for (Result res : results) System.out.println(res);
+        for (ResultSink.Row row : rows) System.out.println(Result.of(row));
         System.out.println("===================================================");
 
-        ChartPlotter.showChart("makespan", results);
-        ChartPlotter.showChart("energy", results);
-        ChartPlotter.showChart("missratio", results);
-        ChartPlotter.showChart("qos", results);
+        System.out.println("\nWhere the time went (also in metrics.json / metrics.prom):");
+        System.out.print(Metrics.report());
+        Metrics.export(dir);
+
+        ChartRenderer.present(dir, true, false);
     }
 }
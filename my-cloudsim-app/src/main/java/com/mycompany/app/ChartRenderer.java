@@ -0,0 +1,100 @@
+package com.mycompany.app;
+
+import org.jfree.chart.ChartUtils;
+import org.jfree.chart.JFreeChart;
+import org.jfree.svg.SVGGraphics2D;
+
+import java.awt.GraphicsEnvironment;
+import java.awt.Rectangle;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+// Draws the charts of a finished (or still running) sweep from the files a ResultSink wrote, so
+// nothing needs a display or the results in memory:
+//
+//   java -cp ... com.mycompany.app.ChartRenderer results/batch-42 [png|svg]
+//
+// writes <dir>/charts/<metric>.<ext> for every metric and fitness-<run>.<ext> for every PSO run.
+public class ChartRenderer {
+
+    static final List<String> METRICS = List.of("makespan", "energy", "missratio", "qos");
+    private static final int WIDTH = 800, HEIGHT = 600;
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("usage: ChartRenderer <results dir> [png|svg]");
+            System.exit(2);
+        }
+        List<Path> files = render(Path.of(args[0]), args.length > 1 ? args[1] : "png");
+        System.out.println("Wrote " + files.size() + " chart(s) to " + Path.of(args[0], "charts").toAbsolutePath());
+    }
+
+    static List<Path> render(Path dir, String format) throws IOException {
+        String ext = format.toLowerCase();
+        if (!ext.equals("png") && !ext.equals("svg")) throw new IllegalArgumentException("Unknown chart format: " + format);
+        Path out = Files.createDirectories(dir.resolve("charts"));
+        List<Path> written = new ArrayList<>();
+
+        List<ResultSink.Row> rows = FileResultSink.readResults(dir);
+        if (!rows.isEmpty()) {
+            for (String metric : METRICS) {
+                written.add(save(ChartPlotter.metricChart(metric, rows), out.resolve(metric + "." + ext)));
+            }
+        }
+        for (Map.Entry<String, List<Double>> curve : FileResultSink.readFitness(dir).entrySet()) {
+            JFreeChart chart = FitnessPlotter.chart(fitnessTitle(curve.getKey()), curve.getValue());
+            written.add(save(chart, out.resolve("fitness-" + fileName(curve.getKey()) + "." + ext)));
+        }
+        return written;
+    }
+
+    // End of a runner: -Dcharts=window (default with a display) opens the charts the runner always
+    // showed, png or svg renders every chart into <dir>/charts, none (default when headless) skips them.
+    static void present(Path dir, boolean metrics, boolean fitness) {
+        String mode = System.getProperty("charts", GraphicsEnvironment.isHeadless() ? "none" : "window");
+        try {
+            switch (mode.toLowerCase()) {
+                case "window" -> {
+                    if (metrics) {
+                        List<ResultSink.Row> rows = FileResultSink.readResults(dir);
+                        for (String metric : METRICS) ChartPlotter.showChart(metric, rows);
+                    }
+                    if (fitness) {
+                        for (var curve : FileResultSink.readFitness(dir).entrySet()) {
+                            FitnessPlotter.show(fitnessTitle(curve.getKey()), curve.getValue());
+                        }
+                    }
+                }
+                case "png", "svg" -> System.out.println("Wrote " + render(dir, mode).size() + " chart(s) to " + dir.resolve("charts"));
+                case "none" -> System.out.println("Charts skipped; render them later with: ChartRenderer " + dir + " png");
+                default -> throw new IllegalArgumentException("Unknown -Dcharts mode: " + mode);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read results from " + dir, e);
+        }
+    }
+
+    static Path save(JFreeChart chart, Path file) throws IOException {
+        if (file.toString().endsWith(".svg")) {
+            SVGGraphics2D g2 = new SVGGraphics2D(WIDTH, HEIGHT);
+            chart.draw(g2, new Rectangle(WIDTH, HEIGHT));
+            Files.writeString(file, g2.getSVGDocument());
+        } else {
+            ChartUtils.saveChartAsPNG(file.toFile(), chart, WIDTH, HEIGHT);
+        }
+        return file;
+    }
+
+    private static String fitnessTitle(String run) {
+        return "Fitness over Iterations (" + run + ")";
+    }
+
+    private static String fileName(String run) {
+        return run.replaceAll("[^A-Za-z0-9.-]+", "_");
+    }
+}
@@ -0,0 +1,252 @@
+package com.mycompany.app;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32C;
+
+// Binary checkpoint container: a magic number and version, then whatever primitives and primitive
+// arrays the owner writes, then a CRC32C of everything before it. Data moves through one direct
+// buffer of CHUNK bytes, so a swarm with tens of MB of velocities is written without building the
+// file in memory. A Writer fills <file>.tmp and only commit() renames it over the previous
+// checkpoint; closing without a commit discards it, so a failed or interrupted write always leaves
+// the last good checkpoint in place.
+final class CheckpointFile {
+
+    private static final int CHUNK = 1 << 20;
+
+    private CheckpointFile() {}
+
+    static final class Writer implements AutoCloseable {
+        private final Path file, tmp;
+        private final FileChannel channel;
+        private final ByteBuffer buf = ByteBuffer.allocateDirect(CHUNK);
+        private final CRC32C crc = new CRC32C();
+        private boolean committed;
+
+        Writer(Path file, int magic, int version) throws IOException {
+            this.file = file;
+            this.tmp = file.resolveSibling(file.getFileName() + ".tmp");
+            Path parent = file.toAbsolutePath().getParent();
+            if (parent != null) Files.createDirectories(parent);
+            this.channel = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+            putInt(magic);
+            putInt(version);
+        }
+
+        void putInt(int v) throws IOException {
+            room(Integer.BYTES);
+            buf.putInt(v);
+        }
+
+        void putLong(long v) throws IOException {
+            room(Long.BYTES);
+            buf.putLong(v);
+        }
+
+        void putDouble(double v) throws IOException {
+            room(Double.BYTES);
+            buf.putDouble(v);
+        }
+
+        // Length-prefixed arrays, copied a chunk at a time.
+        void putInts(int[] a, int from, int to) throws IOException {
+            putInt(to - from);
+            while (from < to) {
+                room(Integer.BYTES);
+                int n = Math.min(to - from, buf.remaining() / Integer.BYTES);
+                buf.asIntBuffer().put(a, from, n);
+                buf.position(buf.position() + n * Integer.BYTES);
+                from += n;
+            }
+        }
+
+        void putInts(int[] a) throws IOException {
+            putInts(a, 0, a.length);
+        }
+
+        void putDoubles(double[] a) throws IOException {
+            putInt(a.length);
+            int from = 0;
+            while (from < a.length) {
+                room(Double.BYTES);
+                int n = Math.min(a.length - from, buf.remaining() / Double.BYTES);
+                buf.asDoubleBuffer().put(a, from, n);
+                buf.position(buf.position() + n * Double.BYTES);
+                from += n;
+            }
+        }
+
+        private void room(int bytes) throws IOException {
+            if (buf.remaining() < bytes) drain();
+        }
+
+        private void drain() throws IOException {
+            buf.flip();
+            crc.update(buf.duplicate());
+            while (buf.hasRemaining()) channel.write(buf);
+            buf.clear();
+        }
+
+        // Seals the file with its checksum and moves it into place.
+        void commit() throws IOException {
+            drain();
+            buf.putLong(crc.getValue());
+            buf.flip();
+            while (buf.hasRemaining()) channel.write(buf);
+            channel.force(false);
+            channel.close();
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            committed = true;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (committed) return;
+            channel.close();
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    static final class Reader implements AutoCloseable {
+        private final Path file;
+        private final FileChannel channel;
+        private final ByteBuffer buf = ByteBuffer.allocateDirect(CHUNK);
+        private final CRC32C crc = new CRC32C();
+        private long unread;                  // payload bytes not yet pulled into buf
+
+        // Verifies the checksum up front, then checks magic and version.
+        Reader(Path file, int magic, int version) throws IOException {
+            this.file = file;
+            this.channel = FileChannel.open(file, StandardOpenOption.READ);
+            try {
+                long size = channel.size();
+                if (size < 2 * Integer.BYTES + Long.BYTES) throw corrupt("truncated");
+                verifyChecksum(size);
+                unread = size - Long.BYTES;
+                buf.limit(0);
+                if (getInt() != magic) throw corrupt("not a checkpoint of this kind");
+                int v = getInt();
+                if (v != version) throw corrupt("version " + v + ", expected " + version);
+            } catch (IOException | RuntimeException e) {
+                channel.close();
+                throw e;
+            }
+        }
+
+        int getInt() throws IOException {
+            need(Integer.BYTES);
+            return buf.getInt();
+        }
+
+        long getLong() throws IOException {
+            need(Long.BYTES);
+            return buf.getLong();
+        }
+
+        double getDouble() throws IOException {
+            need(Double.BYTES);
+            return buf.getDouble();
+        }
+
+        // Reads an array written by putInts into `into`, whose length it must match.
+        void getInts(int[] into) throws IOException {
+            int length = getInt();
+            if (length != into.length) throw corrupt("array of " + length + ", expected " + into.length);
+            fill(into);
+        }
+
+        // Variable-length variant of getInts.
+        int[] getInts() throws IOException {
+            int[] a = new int[checkedLength(Integer.BYTES)];
+            fill(a);
+            return a;
+        }
+
+        void getDoubles(double[] into) throws IOException {
+            int length = getInt();
+            if (length != into.length) throw corrupt("array of " + length + ", expected " + into.length);
+            fill(into);
+        }
+
+        double[] getDoubles() throws IOException {
+            double[] a = new double[checkedLength(Double.BYTES)];
+            fill(a);
+            return a;
+        }
+
+        IOException corrupt(String why) {
+            return new IOException("Corrupt checkpoint " + file + ": " + why);
+        }
+
+        private int checkedLength(int elementBytes) throws IOException {
+            int length = getInt();
+            if (length < 0 || (long) length * elementBytes > unread + buf.remaining()) throw corrupt("bad array length " + length);
+            return length;
+        }
+
+        private void fill(int[] a) throws IOException {
+            for (int from = 0; from < a.length; ) {
+                need(Integer.BYTES);
+                int n = Math.min(a.length - from, buf.remaining() / Integer.BYTES);
+                buf.asIntBuffer().get(a, from, n);
+                buf.position(buf.position() + n * Integer.BYTES);
+                from += n;
+            }
+        }
+
+        private void fill(double[] a) throws IOException {
+            for (int from = 0; from < a.length; ) {
+                need(Double.BYTES);
+                int n = Math.min(a.length - from, buf.remaining() / Double.BYTES);
+                buf.asDoubleBuffer().get(a, from, n);
+                buf.position(buf.position() + n * Double.BYTES);
+                from += n;
+            }
+        }
+
+        // Refills buf from the channel so at least `bytes` are readable.
+        private void need(int bytes) throws IOException {
+            if (buf.remaining() >= bytes) return;
+            if (unread < bytes - buf.remaining()) throw corrupt("unexpected end of data");
+            buf.compact();
+            buf.limit((int) Math.min(buf.capacity(), buf.position() + unread));
+            while (buf.hasRemaining()) {
+                int n = channel.read(buf);
+                if (n < 0) throw corrupt("unexpected end of file");
+                unread -= n;
+            }
+            buf.flip();
+        }
+
+        private void verifyChecksum(long size) throws IOException {
+            long payload = size - Long.BYTES;
+            ByteBuffer chunk = ByteBuffer.allocateDirect(CHUNK);
+            long pos = 0;
+            while (pos < payload) {
+                chunk.clear().limit((int) Math.min(CHUNK, payload - pos));
+                int n = channel.read(chunk, pos);
+                if (n < 0) throw corrupt("unexpected end of file");
+                chunk.flip();
+                crc.update(chunk);
+                pos += n;
+            }
+            ByteBuffer stored = ByteBuffer.allocate(Long.BYTES);
+            while (stored.hasRemaining()) {
+                if (channel.read(stored, payload + stored.position()) < 0) throw corrupt("unexpected end of file");
+            }
+            if (stored.getLong(0) != crc.getValue()) throw corrupt("checksum mismatch");
+            channel.position(0);
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.mycompany.app;
+
+import org.cloudbus.cloudsim.brokers.DatacenterBrokerSimple;
+import org.cloudbus.cloudsim.cloudlets.Cloudlet;
+import org.cloudbus.cloudsim.core.CloudSim;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Broker that hands a DAG's cloudlets to CloudSim as their parents finish instead of all at time
+// zero, so the simulation itself enforces precedence and only ready tasks sit in the broker and VM
+// queues. Every task counts its unfinished parents; the onFinish listener of a cloudlet decrements
+// the counts of its children and submits the ones that reach zero, ordered by their position in
+// the dispatch order. Cloudlets must already be bound to their VMs.
+public class DagBroker extends DatacenterBrokerSimple {
+
+    private final DagRun run;
+    private final int[] dispatchOrder;
+    private final int[] rank;                 // position of each task in dispatchOrder
+    private final int[] waitingParents;
+    private int[] ready = new int[16];        // ranks of the tasks one finish releases
+    private int inFlight, peakInFlight;
+
+    public DagBroker(CloudSim simulation, DagRun run, int[] dispatchOrder) {
+        super(simulation);
+        this.run = run;
+        this.dispatchOrder = dispatchOrder;
+        TaskGraph g = run.graph;
+        this.rank = new int[g.taskCount];
+        for (int k = 0; k < dispatchOrder.length; k++) rank[dispatchOrder[k]] = k;
+        this.waitingParents = new int[g.taskCount];
+        for (int t = 0; t < g.taskCount; t++) waitingParents[t] = g.parentStart[t + 1] - g.parentStart[t];
+    }
+
+    // Registers the finish listeners and submits the entry tasks. Call once, before the simulation starts.
+    public void submitDag() {
+        List<Cloudlet> entries = new ArrayList<>();
+        for (int task : dispatchOrder) {
+            run.cloudlets[task].addOnFinishListener(info -> onFinish(task));
+            if (waitingParents[task] == 0) entries.add(run.cloudlets[task]);
+        }
+        submit(entries);
+    }
+
+    // Most cloudlets submitted and not yet finished at any one time.
+    public int getPeakInFlight() {
+        return peakInFlight;
+    }
+
+    private void onFinish(int task) {
+        inFlight--;
+        int[] released = release(task);
+        if (released.length == 0) return;
+        List<Cloudlet> batch = new ArrayList<>(released.length);
+        for (int t : released) batch.add(run.cloudlets[t]);
+        submit(batch);
+    }
+
+    // Children of `task` whose last unfinished parent it was, in dispatch order.
+    int[] release(int task) {
+        TaskGraph g = run.graph;
+        int count = 0;
+        for (int k = g.childStart[task]; k < g.childStart[task + 1]; k++) {
+            int child = g.children[k];
+            if (--waitingParents[child] > 0) continue;
+            if (count == ready.length) ready = Arrays.copyOf(ready, count * 2);
+            ready[count++] = rank[child];
+        }
+        Arrays.sort(ready, 0, count);
+        int[] tasks = new int[count];
+        for (int i = 0; i < count; i++) tasks[i] = dispatchOrder[ready[i]];
+        return tasks;
+    }
+
+    private void submit(List<Cloudlet> cloudlets) {
+        if (cloudlets.isEmpty()) return;
+        inFlight += cloudlets.size();
+        peakInFlight = Math.max(peakInFlight, inFlight);
+        submitCloudletList(cloudlets);
+    }
+}
@@ -0,0 +1,314 @@
+package com.mycompany.app;
+
+import org.cloudbus.cloudsim.cloudlets.Cloudlet;
+import org.cloudbus.cloudsim.cloudlets.CloudletSimple;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.function.LongConsumer;
+
+// Seeded DAG structure generator. Edges are collected as packed longs (parent << 32 | child, always
+// parent < child) and only turned into TaskNode links at the end, so the generation itself
+// allocates nothing per edge. Task lengths follow TaskDagGenerator (8000 + 10·id MI, 2 PEs); deadlines
+// are left at 0 for the caller to assign.
+public final class DagGenerator {
+
+    public enum Topology { RANDOM, LAYERED, FORK_JOIN }
+
+    private final int tasks;
+    private final Topology topology;
+    private final double density;
+    private final long edges;
+    private final int layers;
+    private final int maxFanOut;
+    private final long seed;
+
+    private DagGenerator(Builder b) {
+        this.tasks = b.tasks;
+        this.topology = b.topology;
+        this.density = b.density;
+        this.edges = b.edges;
+        this.layers = b.layers;
+        this.maxFanOut = b.maxFanOut;
+        this.seed = b.seed;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public List<App.TaskNode> generate() {
+        SplittableRandom rnd = new SplittableRandom(seed);
+        EdgeList out = new EdgeList();
+        switch (topology) {
+            case RANDOM -> {
+                if (edges >= 0) randomEdges(rnd, out);
+                else bernoulliEdges(rnd, out);
+            }
+            case LAYERED -> layeredEdges(rnd, out);
+            case FORK_JOIN -> forkJoinEdges(rnd, out);
+        }
+        return build(out);
+    }
+
+    // Exactly `edges` distinct forward pairs, uniform over all n(n-1)/2 of them. Rejection sampling
+    // into a packed hash set while at most half of the pairs are wanted; above that the pairs to
+    // leave out are sampled instead, so no draw ever has worse than even odds.
+    private void randomEdges(SplittableRandom rnd, EdgeList out) {
+        long max = maxEdges(tasks);
+        boolean complement = edges > max / 2;
+        long draw = complement ? max - edges : edges;
+
+        EdgeSet picked = new EdgeSet(draw);
+        while (picked.size() < draw) {
+            int a = rnd.nextInt(tasks);
+            int b = rnd.nextInt(tasks - 1);
+            if (b >= a) b++;
+            picked.add(pack(Math.min(a, b), Math.max(a, b)));
+        }
+
+        if (!complement) {
+            picked.forEach(out::add);
+            return;
+        }
+        // This walk visits all n(n-1)/2 pairs. It only runs when more than half of them are edges,
+        // so it costs at most twice the output, but such a DAG is quadratic in n by itself: the
+        // generator scales with the edges asked for, and only sparse DAGs stay cheap at 100k tasks.
+        for (int child = 1; child < tasks; child++) {
+            for (int parent = 0; parent < child; parent++) {
+                long e = pack(parent, child);
+                if (!picked.contains(e)) out.add(e);
+            }
+        }
+    }
+
+    // Every forward pair independently with probability `density`, in O(n + edges) by jumping
+    // geometric gaps over the pairs (Batagelj & Brandes).
+    private void bernoulliEdges(SplittableRandom rnd, EdgeList out) {
+        if (density <= 0) return;
+        double logQ = Math.log(1 - density);
+        int child = 1;
+        long parent = -1;
+        while (child < tasks) {
+            parent += 1 + (density >= 1 ? 0 : (long) Math.floor(Math.log(1 - rnd.nextDouble()) / logQ));
+            while (parent >= child && child < tasks) {
+                parent -= child;
+                child++;
+            }
+            if (child < tasks) out.add(pack((int) parent, child));
+        }
+    }
+
+    // Tasks split into `layers` layers of near-equal width, ids increasing layer by layer. Each task
+    // links to every task of the previous layer with probability `density`, and to one random task of
+    // it when that leaves it without a parent, so every task below the first layer has a parent.
+    private void layeredEdges(SplittableRandom rnd, EdgeList out) {
+        int layerCount = Math.min(layers, tasks);
+        int[] start = new int[layerCount + 1];
+        for (int l = 0; l <= layerCount; l++) start[l] = (int) ((long) tasks * l / layerCount);
+
+        double logQ = density > 0 && density < 1 ? Math.log(1 - density) : 0;
+        for (int l = 1; l < layerCount; l++) {
+            int from = start[l - 1], width = start[l] - from;
+            for (int child = start[l]; child < start[l + 1]; child++) {
+                int linked = 0;
+                if (density >= 1) {
+                    for (int k = 0; k < width; k++) out.add(pack(from + k, child));
+                    linked = width;
+                } else if (density > 0) {
+                    for (long k = gap(rnd, logQ); k < width; k += 1 + gap(rnd, logQ)) {
+                        out.add(pack(from + (int) k, child));
+                        linked++;
+                    }
+                }
+                if (linked == 0) out.add(pack(from + rnd.nextInt(width), child));
+            }
+        }
+    }
+
+    // Series of fork-join blocks: a task forks into 2..maxFanOut branches and the next task joins
+    // them, which is the shape of scatter/gather workflows.
+    private void forkJoinEdges(SplittableRandom rnd, EdgeList out) {
+        int next = 1, fork = 0;
+        while (next < tasks) {
+            int branches = Math.min(tasks - next, 2 + rnd.nextInt(maxFanOut - 1));
+            int first = next;
+            for (int k = 0; k < branches; k++) out.add(pack(fork, next++));
+            if (next == tasks) break;
+            for (int k = 0; k < branches; k++) out.add(pack(first + k, next));
+            fork = next++;
+        }
+    }
+
+    private static long gap(SplittableRandom rnd, double logQ) {
+        return (long) Math.floor(Math.log(1 - rnd.nextDouble()) / logQ);
+    }
+
+    private List<App.TaskNode> build(EdgeList edgeList) {
+        int[] inDegree = new int[tasks], outDegree = new int[tasks];
+        for (int k = 0; k < edgeList.size; k++) {
+            long e = edgeList.edges[k];
+            outDegree[parentOf(e)]++;
+            inDegree[childOf(e)]++;
+        }
+
+        List<App.TaskNode> dag = new ArrayList<>(tasks);
+        for (int i = 0; i < tasks; i++) {
+            Cloudlet cl = new CloudletSimple(8000 + (i * 10L), 2);
+            cl.setSizes(1024);
+            App.TaskNode task = new App.TaskNode(i, cl);
+            task.parents = new ArrayList<>(inDegree[i]);
+            task.children = new ArrayList<>(outDegree[i]);
+            dag.add(task);
+        }
+        for (int k = 0; k < edgeList.size; k++) {
+            long e = edgeList.edges[k];
+            dag.get(childOf(e)).addDependency(dag.get(parentOf(e)));
+        }
+        return dag;
+    }
+
+    static long maxEdges(int tasks) {
+        return (long) tasks * (tasks - 1) / 2;
+    }
+
+    static long pack(int parent, int child) {
+        return (long) parent << 32 | child;
+    }
+
+    static int parentOf(long edge) {
+        return (int) (edge >>> 32);
+    }
+
+    static int childOf(long edge) {
+        return (int) edge;
+    }
+
+    // Growable long[] of packed edges in generation order.
+    private static final class EdgeList {
+        long[] edges = new long[16];
+        int size;
+
+        void add(long e) {
+            if (size == edges.length) edges = Arrays.copyOf(edges, edges.length * 2);
+            edges[size++] = e;
+        }
+    }
+
+    // Open-addressing set of packed edges with linear probing. -1 marks a free slot, which no edge
+    // can collide with since both halves are non-negative.
+    static final class EdgeSet {
+        private long[] slots;
+        private int size;
+
+        EdgeSet(long expected) {
+            int capacity = Integer.highestOneBit((int) Math.max(16, Math.min(1 << 30, expected * 2)) - 1) << 1;
+            slots = new long[capacity];
+            Arrays.fill(slots, -1L);
+        }
+
+        int size() {
+            return size;
+        }
+
+        boolean add(long e) {
+            int i = slot(slots, e);
+            if (slots[i] == e) return false;
+            slots[i] = e;
+            if (++size * 2 > slots.length) grow();
+            return true;
+        }
+
+        boolean contains(long e) {
+            return slots[slot(slots, e)] == e;
+        }
+
+        void forEach(LongConsumer action) {
+            for (long e : slots) if (e != -1L) action.accept(e);
+        }
+
+        private void grow() {
+            long[] old = slots;
+            slots = new long[old.length * 2];
+            Arrays.fill(slots, -1L);
+            for (long e : old) if (e != -1L) slots[slot(slots, e)] = e;
+        }
+
+        // Slot holding `e`, or the free slot where it belongs.
+        private static int slot(long[] slots, long e) {
+            long h = e * 0x9E3779B97F4A7C15L;
+            int mask = slots.length - 1;
+            int i = (int) (h ^ (h >>> 32)) & mask;
+            while (slots[i] != -1L && slots[i] != e) i = (i + 1) & mask;
+            return i;
+        }
+    }
+
+    public static final class Builder {
+        private int tasks = 100;
+        private Topology topology = Topology.RANDOM;
+        private double density = 0.05;
+        private long edges = -1;
+        private int layers = 10;
+        private int maxFanOut = 8;
+        private long seed = RandomStreams.nextSeed();
+
+        private Builder() {}
+
+        public Builder tasks(int tasks) {
+            if (tasks < 1) throw new IllegalArgumentException("tasks must be >= 1: " + tasks);
+            this.tasks = tasks;
+            return this;
+        }
+
+        // Each forward pair (i < j) becomes an edge with probability `density`.
+        public Builder random(double density) {
+            this.topology = Topology.RANDOM;
+            this.density = checkDensity(density);
+            this.edges = -1;
+            return this;
+        }
+
+        // Exactly `edges` distinct forward pairs, uniformly chosen; build() rejects more than n(n-1)/2.
+        public Builder randomEdges(long edges) {
+            if (edges < 0) throw new IllegalArgumentException("edges must be >= 0: " + edges);
+            this.topology = Topology.RANDOM;
+            this.edges = edges;
+            return this;
+        }
+
+        public Builder layered(int layers, double density) {
+            if (layers < 1) throw new IllegalArgumentException("layers must be >= 1: " + layers);
+            this.topology = Topology.LAYERED;
+            this.layers = layers;
+            this.density = checkDensity(density);
+            return this;
+        }
+
+        public Builder forkJoin(int maxFanOut) {
+            if (maxFanOut < 2) throw new IllegalArgumentException("maxFanOut must be >= 2: " + maxFanOut);
+            this.topology = Topology.FORK_JOIN;
+            this.maxFanOut = maxFanOut;
+            return this;
+        }
+
+        public Builder seed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        public DagGenerator build() {
+            if (topology == Topology.RANDOM && edges > maxEdges(tasks)) {
+                throw new IllegalArgumentException(tasks + " tasks allow at most " + maxEdges(tasks) + " edges: " + edges);
+            }
+            return new DagGenerator(this);
+        }
+
+        private static double checkDensity(double density) {
+            if (!(density >= 0 && density <= 1)) throw new IllegalArgumentException("density must be in [0, 1]: " + density);
+            return density;
+        }
+    }
+}
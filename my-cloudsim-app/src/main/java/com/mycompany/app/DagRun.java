@@ -0,0 +1,120 @@
+package com.mycompany.app;
+
+import org.cloudbus.cloudsim.cloudlets.Cloudlet;
+import org.cloudbus.cloudsim.cloudlets.CloudletSimple;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Per-run state over a shared, immutable TaskGraph: the VM choice and execution order a scheduler
+// assigned, plus the cloudlets one simulation consumes. Everything is a flat array indexed by task
+// id, so a run costs its cloudlets and a few int[]s instead of a copy of the whole DAG. A CloudSim
+// cloudlet can only be simulated once, so each simulation needs its own DagRun.
+public final class DagRun {
+
+    static final Metrics.Timer COPY = Metrics.timer("dag_copy", "Per-run copy of a DAG: fresh cloudlets and overlays", true);
+
+    public final TaskGraph graph;
+    final int[] preferredVm;          // -1 = random VM
+    final int[] executionOrder;       // -1 = dispatched by CPOP score
+    final int[] position;             // tie-break among equal priorities; the task's list position
+    final Cloudlet[] cloudlets;
+
+    private DagRun(TaskGraph graph, int[] preferredVm, int[] executionOrder, int[] position, Cloudlet[] cloudlets) {
+        this.graph = graph;
+        this.preferredVm = preferredVm;
+        this.executionOrder = executionOrder;
+        this.position = position;
+        this.cloudlets = cloudlets;
+    }
+
+    // Fresh run: new cloudlets, no VM preference, no execution order.
+    public static DagRun of(TaskGraph graph) {
+        try (Metrics.Span span = COPY.start()) {
+            int n = graph.taskCount;
+            int[] preferredVm = new int[n];
+            int[] executionOrder = new int[n];
+            int[] position = new int[n];
+            Arrays.fill(preferredVm, -1);
+            Arrays.fill(executionOrder, -1);
+            Cloudlet[] cloudlets = new Cloudlet[n];
+            for (int t = 0; t < n; t++) {
+                position[t] = t;
+                cloudlets[t] = new CloudletSimple((long) graph.length[t], graph.pes[t]);
+                cloudlets[t].setSizes(1024);
+            }
+            return new DagRun(graph, preferredVm, executionOrder, position, cloudlets);
+        }
+    }
+
+    // Run over existing nodes, simulating their own cloudlets with their current VM and order
+    // settings; this is how the List-based runSimulation keeps writing results into the nodes.
+    // `graph` must be TaskGraph.of(dag).
+    static DagRun adopt(TaskGraph graph, List<App.TaskNode> dag) {
+        int n = graph.taskCount;
+        int[] preferredVm = new int[n];
+        int[] executionOrder = new int[n];
+        int[] position = new int[n];
+        Cloudlet[] cloudlets = new Cloudlet[n];
+        for (int i = 0; i < n; i++) {
+            App.TaskNode node = dag.get(i);
+            preferredVm[node.id] = node.getPreferredVm();
+            executionOrder[node.id] = node.getExecutionOrder();
+            position[node.id] = i;
+            cloudlets[node.id] = node.cloudlet;
+        }
+        return new DagRun(graph, preferredVm, executionOrder, position, cloudlets);
+    }
+
+    public int taskCount() {
+        return graph.taskCount;
+    }
+
+    public void setPreferredVm(int task, int vm) {
+        preferredVm[task] = vm;
+    }
+
+    public int getPreferredVm(int task) {
+        return preferredVm[task];
+    }
+
+    public void setExecutionOrder(int task, int order) {
+        executionOrder[task] = order;
+    }
+
+    public int getExecutionOrder(int task) {
+        return executionOrder[task];
+    }
+
+    public Cloudlet cloudlet(int task) {
+        return cloudlets[task];
+    }
+
+    // True once a scheduler fixed an execution order; the dispatcher then follows it instead of CPOP.
+    public boolean hasExecutionOrder() {
+        for (int order : executionOrder) if (order >= 0) return true;
+        return false;
+    }
+
+    // Full TaskNode graph in id order, sharing this run's cloudlets, for code written against lists.
+    public List<App.TaskNode> toNodes() {
+        int n = graph.taskCount;
+        List<App.TaskNode> dag = new ArrayList<>(n);
+        for (int t = 0; t < n; t++) {
+            App.TaskNode node = new App.TaskNode(t, cloudlets[t]);
+            node.deadline = graph.deadline[t];
+            node.setPreferredVm(preferredVm[t]);
+            node.setExecutionOrder(executionOrder[t]);
+            node.parents = new ArrayList<>(graph.inDegree(t));
+            node.children = new ArrayList<>(graph.childStart[t + 1] - graph.childStart[t]);
+            dag.add(node);
+        }
+        for (int t = 0; t < n; t++) {
+            for (int k = graph.parentStart[t]; k < graph.parentStart[t + 1]; k++) {
+                dag.get(t).addDependency(dag.get(graph.parents[k]));
+            }
+        }
+        return dag;
+    }
+}
@@ -0,0 +1,59 @@
+package com.mycompany.app;
+
+import org.cloudbus.cloudsim.vms.Vm;
+
+import java.util.List;
+
+// How task deadlines are set on a freshly generated DAG. SIMULATED is the original mini CloudSim run
+// and stays available to reproduce earlier experiments; the analytical models derive finish-time
+// estimates from the DAG ranks and the VM speeds without simulating anything.
+@FunctionalInterface
+public interface DeadlineModel {
+
+    // Random mapping onto 20 VMs, simulated; deadline = finish ± 10.
+    DeadlineModel SIMULATED = new DeadlineModel() {
+        @Override
+        public void assign(List<App.TaskNode> dag) {
+            TaskDagGenerator.assignRealisticDeadlines(dag);
+        }
+
+        @Override
+        public void assign(List<App.TaskNode> dag, long seed) {
+            TaskDagGenerator.assignRealisticDeadlines(dag, seed);
+        }
+    };
+
+    void assign(List<App.TaskNode> dag);
+
+    // Variant for generators that own a seed; models with random draws of their own use it.
+    default void assign(List<App.TaskNode> dag, long seed) {
+        assign(dag);
+    }
+
+    // Deadline = estimated finish time on `vmCount` default VMs, see AnalyticalDeadlines.
+    static DeadlineModel analytical(int vmCount) {
+        return new AnalyticalDeadlines(SimulationUtils.createVmList(vmCount), null);
+    }
+
+    static DeadlineModel analytical(List<Vm> vms) {
+        return new AnalyticalDeadlines(vms, null);
+    }
+
+    // Deadline = estimate · (1 + s) with s ~ U[minSlack, maxSlack]; negative slack makes deadlines
+    // tighter than the estimate.
+    static DeadlineModel uniformSlack(int vmCount, double minSlack, double maxSlack, long seed) {
+        if (minSlack > maxSlack || minSlack <= -1) {
+            throw new IllegalArgumentException("Need -1 < minSlack <= maxSlack: " + minSlack + ", " + maxSlack);
+        }
+        return new AnalyticalDeadlines(SimulationUtils.createVmList(vmCount),
+                new AnalyticalDeadlines.Slack(seed, rnd -> minSlack + (maxSlack - minSlack) * rnd.nextDouble()));
+    }
+
+    // Deadline = estimate · (1 + s) with s exponentially distributed around `meanSlack`: most tasks
+    // are tight, a few get a lot of room.
+    static DeadlineModel exponentialSlack(int vmCount, double meanSlack, long seed) {
+        if (meanSlack <= 0) throw new IllegalArgumentException("meanSlack must be > 0: " + meanSlack);
+        return new AnalyticalDeadlines(SimulationUtils.createVmList(vmCount),
+                new AnalyticalDeadlines.Slack(seed, rnd -> -meanSlack * Math.log(1 - rnd.nextDouble())));
+    }
+}
@@ -0,0 +1,140 @@
+package com.mycompany.app;
+
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.hosts.Host;
+import org.cloudbus.cloudsim.vms.Vm;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.DoubleUnaryOperator;
+
+// Online energy integration over a simulation. Utilisation only changes at simulation events, so it
+// is piecewise constant: on every clock tick the meter closes the interval since the previous tick
+// at the utilisation sampled then, and samples the utilisation that holds from now on. State is a
+// few numbers per host and VM, whatever the length of the run, so no utilisation history is kept.
+//
+// A host's utilisation is the sum of its VMs' shares of its MIPS capacity. Its energy is the power
+// model integrated over time, idle power included. The power above idle is split among the VMs in
+// proportion to their shares, so VM energy is the dynamic energy each VM caused.
+public final class EnergyMeter {
+
+    // Energy in joules (watts × simulated seconds), per host and per VM in list order.
+    public record Breakdown(List<Double> hosts, List<Double> vms) {
+        public static final Breakdown NONE = new Breakdown(List.of(), List.of());
+
+        public double total() {
+            double sum = 0;
+            for (double e : hosts) sum += e;
+            return sum;
+        }
+    }
+
+    private final double[] hostCapacity;          // MIPS
+    private final DoubleUnaryOperator[] power;    // utilisation fraction -> watts
+    private final double[] idlePower;
+    private final double[] vmCapacity;            // MIPS
+
+    private final double[] hostEnergy, vmEnergy;
+    private final double[] hostUtil;              // sum of VM shares, held since lastTime
+    private final double[] vmShare;
+    private final int[] vmHost;                   // -1 while the VM is not placed
+    private final double[] hostDynamic;           // scratch: power above idle in the closing interval
+    private double lastTime;
+
+    // Set by attach: where tick() reads the utilisation.
+    private List<? extends Vm> vms;
+    private Map<Host, Integer> hostIndex;
+    private double[] vmUtil;
+
+    EnergyMeter(double[] hostCapacity, DoubleUnaryOperator[] power, double[] vmCapacity) {
+        int hosts = hostCapacity.length, n = vmCapacity.length;
+        this.hostCapacity = hostCapacity;
+        this.power = power;
+        this.vmCapacity = vmCapacity;
+        this.idlePower = new double[hosts];
+        for (int h = 0; h < hosts; h++) idlePower[h] = power[h].applyAsDouble(0);
+        this.hostEnergy = new double[hosts];
+        this.hostUtil = new double[hosts];
+        this.hostDynamic = new double[hosts];
+        this.vmEnergy = new double[n];
+        this.vmShare = new double[n];
+        this.vmHost = new int[n];
+        Arrays.fill(vmHost, -1);
+    }
+
+    // Meters `hosts` and `vms` of `simulation` from its clock ticks on; call finish() once it ends.
+    public static EnergyMeter attach(CloudSim simulation, List<? extends Host> hosts, List<? extends Vm> vms) {
+        double[] hostCapacity = new double[hosts.size()];
+        DoubleUnaryOperator[] power = new DoubleUnaryOperator[hosts.size()];
+        Map<Host, Integer> index = new IdentityHashMap<>();
+        for (int h = 0; h < hosts.size(); h++) {
+            Host host = hosts.get(h);
+            hostCapacity[h] = host.getTotalMipsCapacity();
+            power[h] = host.getPowerModel()::getPower;
+            index.put(host, h);
+        }
+        double[] vmCapacity = new double[vms.size()];
+        for (int v = 0; v < vms.size(); v++) vmCapacity[v] = vms.get(v).getMips() * vms.get(v).getNumberOfPes();
+
+        EnergyMeter meter = new EnergyMeter(hostCapacity, power, vmCapacity);
+        meter.vms = vms;
+        meter.hostIndex = index;
+        meter.vmUtil = new double[vms.size()];
+        simulation.addOnClockTickListener(info -> meter.tick(info.getTime()));
+        return meter;
+    }
+
+    private void tick(double time) {
+        for (int v = 0; v < vmUtil.length; v++) {
+            Vm vm = vms.get(v);
+            Integer h = hostIndex.get(vm.getHost());
+            vmHost[v] = h == null ? -1 : h;
+            vmUtil[v] = h == null ? 0 : vm.getCpuPercentUtilization();
+        }
+        sample(time, vmHost, vmUtil);
+    }
+
+    // Closes the interval since the last sample at `time`, then holds the given placement and
+    // utilisation (fraction of each VM's capacity) until the next sample.
+    void sample(double time, int[] placement, double[] utilisation) {
+        integrate(time);
+        Arrays.fill(hostUtil, 0);
+        for (int v = 0; v < vmShare.length; v++) {
+            int h = vmHost[v] = placement[v];
+            vmShare[v] = h < 0 ? 0 : utilisation[v] * vmCapacity[v] / hostCapacity[h];
+            if (h >= 0) hostUtil[h] += vmShare[v];
+        }
+    }
+
+    // Closes the last interval at the simulation's final clock.
+    public Breakdown finish(double time) {
+        integrate(time);
+        return breakdown();
+    }
+
+    public Breakdown breakdown() {
+        List<Double> hosts = new ArrayList<>(hostEnergy.length);
+        for (double e : hostEnergy) hosts.add(e);
+        List<Double> perVm = new ArrayList<>(vmEnergy.length);
+        for (double e : vmEnergy) perVm.add(e);
+        return new Breakdown(List.copyOf(hosts), List.copyOf(perVm));
+    }
+
+    private void integrate(double time) {
+        double dt = time - lastTime;
+        if (dt <= 0) return;
+        for (int h = 0; h < hostEnergy.length; h++) {
+            double p = power[h].applyAsDouble(Math.min(1, hostUtil[h]));
+            hostEnergy[h] += p * dt;
+            hostDynamic[h] = p - idlePower[h];
+        }
+        for (int v = 0; v < vmEnergy.length; v++) {
+            int h = vmHost[v];
+            if (h >= 0 && hostUtil[h] > 0) vmEnergy[v] += hostDynamic[h] * vmShare[v] / hostUtil[h] * dt;
+        }
+        lastTime = time;
+    }
+}
@@ -0,0 +1,281 @@
+package com.mycompany.app;
+
+import com.mycompany.app.ResultSink.Format;
+import com.mycompany.app.ResultSink.Row;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+// ResultSink writing results.{csv,jsonl} and fitness.{csv,jsonl} through buffered NIO writers. Each
+// result row is flushed as soon as it is written, together with the fitness points buffered before
+// it, so a killed sweep leaves every finished cell on disk. Fitness points alone are only flushed
+// when the buffer fills. The read* methods parse either format back for offline charting.
+//
+// A resumed sweep appends to the files of the interrupted one. A cell that crashed after writing its
+// row but before the sweep journal logged it is written again, so readResults keeps the last row per
+// run. A resumed PSO run sends its whole curve again, the points restored from the checkpoint first,
+// so points the killed run had not flushed are filled in and the others are rewritten unchanged.
+final class FileResultSink implements ResultSink {
+
+    static final String[] RESULT_COLUMNS =
+            {"run", "algorithm", "tasks", "vms", "makespan", "energy", "missRatio", "qos", "totalExecutionTime"};
+    static final String[] FITNESS_COLUMNS = {"run", "iteration", "fitness"};
+
+    private final Format format;
+    private final BufferedWriter results, fitness;
+
+    FileResultSink(Path dir, Format format, boolean append) {
+        this.format = format;
+        String ext = extension(format);
+        try {
+            Files.createDirectories(dir);
+            results = open(dir.resolve("results" + ext), RESULT_COLUMNS, append);
+            fitness = open(dir.resolve("fitness" + ext), FITNESS_COLUMNS, append);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open result files in " + dir, e);
+        }
+    }
+
+    @Override
+    public synchronized void result(Row row) {
+        Object[] values = {row.run(), row.algorithm(), row.tasks(), row.vms(), row.makespan(), row.energy(),
+                row.missRatio(), row.qos(), row.totalExecutionTime()};
+        try {
+            writeLine(results, encode(RESULT_COLUMNS, values));
+            fitness.flush();
+            results.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write result " + row.run(), e);
+        }
+    }
+
+    @Override
+    public synchronized void fitness(String run, int iteration, double value) {
+        try {
+            writeLine(fitness, encode(FITNESS_COLUMNS, new Object[] {run, iteration, value}));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write fitness of " + run, e);
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        try (results; fitness) {
+            fitness.flush();
+            results.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot close result files", e);
+        }
+    }
+
+    // Rows in order of first appearance, the last row written for a run winning.
+    static List<Row> readResults(Path dir) throws IOException {
+        Map<String, Row> rows = new LinkedHashMap<>();
+        for (Map<String, String> r : read(dir, "results")) {
+            rows.put(r.get("run"), new Row(r.get("run"), r.get("algorithm"),
+                    Integer.parseInt(r.get("tasks")), Integer.parseInt(r.get("vms")),
+                    number(r.get("makespan")), number(r.get("energy")), number(r.get("missRatio")),
+                    number(r.get("qos")), number(r.get("totalExecutionTime"))));
+        }
+        return new ArrayList<>(rows.values());
+    }
+
+    // Fitness curve per run, runs in order of first appearance. Points of concurrent runs
+    // interleave in the file, so each point is placed by its iteration number.
+    static Map<String, List<Double>> readFitness(Path dir) throws IOException {
+        Map<String, List<Double>> curves = new LinkedHashMap<>();
+        for (Map<String, String> r : read(dir, "fitness")) {
+            List<Double> curve = curves.computeIfAbsent(r.get("run"), k -> new ArrayList<>());
+            int iteration = Integer.parseInt(r.get("iteration"));
+            while (curve.size() <= iteration) curve.add(Double.NaN);
+            curve.set(iteration, number(r.get("fitness")));
+        }
+        return curves;
+    }
+
+    // Whichever format the directory holds; CSV wins if both are there.
+    private static List<Map<String, String>> read(Path dir, String name) throws IOException {
+        Path csv = dir.resolve(name + extension(Format.CSV));
+        Path jsonl = dir.resolve(name + extension(Format.JSONL));
+        boolean isCsv = Files.exists(csv);
+        if (!isCsv && !Files.exists(jsonl)) throw new IOException("No " + name + " file in " + dir);
+
+        List<Map<String, String>> records = new ArrayList<>();
+        try (BufferedReader in = Files.newBufferedReader(isCsv ? csv : jsonl)) {
+            List<String> header = isCsv ? splitCsv(in.readLine()) : null;
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (line.isBlank()) continue;
+                if (!isCsv) {
+                    records.add(parseJsonObject(line));
+                    continue;
+                }
+                List<String> cells = splitCsv(line);
+                Map<String, String> record = new HashMap<>();
+                for (int i = 0; i < header.size() && i < cells.size(); i++) record.put(header.get(i), cells.get(i));
+                records.add(record);
+            }
+        }
+        return records;
+    }
+
+    private static String extension(Format format) {
+        return format == Format.CSV ? ".csv" : ".jsonl";
+    }
+
+    private BufferedWriter open(Path file, String[] columns, boolean append) throws IOException {
+        boolean fresh = !append || !Files.exists(file) || Files.size(file) == 0;
+        BufferedWriter out = fresh
+                ? Files.newBufferedWriter(file)
+                : Files.newBufferedWriter(file, StandardOpenOption.APPEND);
+        if (fresh && format == Format.CSV) writeLine(out, String.join(",", columns));
+        return out;
+    }
+
+    private static void writeLine(BufferedWriter out, String line) throws IOException {
+        out.write(line);
+        out.newLine();
+    }
+
+    private String encode(String[] columns, Object[] values) {
+        StringBuilder sb = new StringBuilder(128);
+        if (format == Format.JSONL) sb.append('{');
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) sb.append(',');
+            Object v = values[i];
+            if (format == Format.CSV) {
+                sb.append(v instanceof String s ? csvQuote(s) : String.valueOf(v));
+                continue;
+            }
+            sb.append(jsonString(columns[i])).append(':');
+            if (v instanceof String s) sb.append(jsonString(s));
+            else if (v instanceof Double d && !Double.isFinite(d)) sb.append("null");
+            else sb.append(v);
+        }
+        if (format == Format.JSONL) sb.append('}');
+        return sb.toString();
+    }
+
+    private static double number(String s) {
+        return s == null || s.isEmpty() || s.equals("null") ? Double.NaN : Double.parseDouble(s);
+    }
+
+    private static String csvQuote(String s) {
+        if (s.indexOf(',') < 0 && s.indexOf('"') < 0 && s.indexOf('\n') < 0) return s;
+        return '"' + s.replace("\"", "\"\"") + '"';
+    }
+
+    private static List<String> splitCsv(String line) {
+        List<String> cells = new ArrayList<>();
+        StringBuilder cell = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c != '"') cell.append(c);
+                else if (i + 1 < line.length() && line.charAt(i + 1) == '"') cell.append(line.charAt(++i));
+                else quoted = false;
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                cells.add(cell.toString());
+                cell.setLength(0);
+            } else {
+                cell.append(c);
+            }
+        }
+        cells.add(cell.toString());
+        return cells;
+    }
+
+    private static String jsonString(String s) {
+        StringBuilder sb = new StringBuilder(s.length() + 2).append('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '"' -> sb.append("\\\"");
+                case '\\' -> sb.append("\\\\");
+                case '\n' -> sb.append("\\n");
+                case '\r' -> sb.append("\\r");
+                case '\t' -> sb.append("\\t");
+                default -> {
+                    if (c < 0x20) sb.append(String.format("\\u%04x", (int) c));
+                    else sb.append(c);
+                }
+            }
+        }
+        return sb.append('"').toString();
+    }
+
+    // The flat objects this sink writes: string keys, string/number/null values. Values come back
+    // as their text, strings unescaped.
+    private static Map<String, String> parseJsonObject(String line) {
+        Map<String, String> record = new HashMap<>();
+        int[] pos = {skip(line, 0)};
+        expect(line, pos, '{');
+        if (line.charAt(skip(line, pos[0])) == '}') return record;
+        while (true) {
+            pos[0] = skip(line, pos[0]);
+            String key = readJsonString(line, pos);
+            pos[0] = skip(line, pos[0]);
+            expect(line, pos, ':');
+            pos[0] = skip(line, pos[0]);
+            String value;
+            if (line.charAt(pos[0]) == '"') {
+                value = readJsonString(line, pos);
+            } else {
+                int start = pos[0];
+                while (pos[0] < line.length() && ",} \t".indexOf(line.charAt(pos[0])) < 0) pos[0]++;
+                value = line.substring(start, pos[0]);
+            }
+            record.put(key, value);
+            pos[0] = skip(line, pos[0]);
+            if (line.charAt(pos[0]) == '}') return record;
+            expect(line, pos, ',');
+        }
+    }
+
+    private static String readJsonString(String line, int[] pos) {
+        expect(line, pos, '"');
+        StringBuilder sb = new StringBuilder();
+        while (true) {
+            char c = line.charAt(pos[0]++);
+            if (c == '"') return sb.toString();
+            if (c != '\\') {
+                sb.append(c);
+                continue;
+            }
+            char e = line.charAt(pos[0]++);
+            switch (e) {
+                case 'n' -> sb.append('\n');
+                case 'r' -> sb.append('\r');
+                case 't' -> sb.append('\t');
+                case 'b' -> sb.append('\b');
+                case 'f' -> sb.append('\f');
+                case 'u' -> {
+                    sb.append((char) Integer.parseInt(line.substring(pos[0], pos[0] + 4), 16));
+                    pos[0] += 4;
+                }
+                default -> sb.append(e);
+            }
+        }
+    }
+
+    private static void expect(String line, int[] pos, char c) {
+        if (pos[0] >= line.length() || line.charAt(pos[0]) != c) {
+            throw new IllegalArgumentException("Expected '" + c + "' at " + pos[0] + " in: " + line);
+        }
+        pos[0]++;
+    }
+
+    private static int skip(String line, int pos) {
+        while (pos < line.length() && Character.isWhitespace(line.charAt(pos))) pos++;
+        return pos;
+    }
+}
@@ -2,6 +2,7 @@ package com.mycompany.app;
 
 import com.mycompany.app.SingleSimulationRunner.SimulationResult;
 
+import java.nio.file.Path;
 import java.util.*;
 
 public class FinalComparisonRunner {
@@ -26,6 +27,11 @@ public class FinalComparisonRunner {
             this.qos = qos;
         }
 
+        static ComparisonResult of(ResultSink.Row row) {
+            return new ComparisonResult(row.vms(), row.tasks(), row.algorithm(),
+                    row.makespan(), row.energy(), row.missRatio(), row.qos());
+        }
+
         @Override
         public String toString() {
             return String.format("Algo: %s | Edge: %d | Tasks: %d | Makespan: %.2f | Energy: %.2f | Miss: %.2f%% | QoS: %.2f%%",
@@ -33,43 +39,69 @@ public class FinalComparisonRunner {
         }
     }
 
+    // One grid cell: a DAG size, a VM count ("edge") and the algorithm to run on it.
+    record Cell(int tasks, int edge, String algorithm) {
+        @Override
+        public String toString() {
+            return algorithm + " tasks=" + tasks + " edge=" + edge;
+        }
+    }
+
     public static void main(String[] args) {
         List<Integer> taskSizes = List.of(100, 200, 300, 400, 500);
         List<Integer> edgeCounts = List.of(10, 20, 30);
 
-        List<ComparisonResult> results = new ArrayList<>();
-
-        for (int taskCount : taskSizes) {
-            List<App.TaskNode> baseDag = TaskDagGenerator.generateRandomDAG(taskCount);
-            for (int edge : edgeCounts) {
-                System.out.printf("\n=== Running TaskCount=%d | Edge=%d ===\n", taskCount, edge);
-
-                // Run Random-CPOP
-                List<App.TaskNode> dagCPOP = TaskDagGenerator.deepCopyDag(baseDag);
-                SimulationResult cpopResult = SingleSimulationRunner.runSimulation(dagCPOP, edge);
-                results.add(new ComparisonResult(edge, taskCount, "CPOP",
-                        cpopResult.makespan(), cpopResult.energy(),
-                        cpopResult.deadlineMissRatio(), cpopResult.qosScore()));
-                System.out.println("Random-CPOP finished");
-
-                // Run PSO
-                List<App.TaskNode> dagPSO = TaskDagGenerator.deepCopyDag(baseDag);
-                PSOScheduler pso = new PSOScheduler();
-                List<App.TaskNode> optimizedDag = pso.schedule(dagPSO, edge);
-                SimulationResult psoResult = SingleSimulationRunner.runSimulation(optimizedDag, edge);
-                results.add(new ComparisonResult(edge, taskCount, "PSO",
-                        psoResult.makespan(), psoResult.energy(),
-                        psoResult.deadlineMissRatio(), psoResult.qosScore()));
-                System.out.println("PSO finished");
-            }
+        List<Cell> cells = new ArrayList<>();
+        for (int taskCount : taskSizes)
+            for (int edge : edgeCounts)
+                for (String algorithm : List.of("CPOP", "PSO")) cells.add(new Cell(taskCount, edge, algorithm));
+
+        long seed = Long.getLong("sweep.seed", RandomStreams.rootSeed());
+        System.out.printf("Sweep seed: %d (rerun with -Dsweep.seed=%d)\n", seed, seed);
+
+        boolean resume = SweepJournal.resumeRequested();
+        int checkpointEvery = Integer.getInteger("pso.checkpointEvery", 10);
+        Path dir = ResultSink.runDirectory("comparison", seed);
+        System.out.println((resume ? "Resuming " : "Streaming results to ") + dir.toAbsolutePath());
+
+        List<ResultSink.Row> rows;
+        try (ResultSink sink = ResultSink.open(dir, resume);
+             SweepJournal<ResultSink.Row> journal = SweepJournal.open(dir.resolve("sweep.journal"), seed, cells.size(), ResultSink.Row.CODEC, resume);
+             SweepExecutor sweep = new SweepExecutor(SweepExecutor.defaultParallelism(), seed)) {
+            // Both algorithms and all VM counts of a task size run on the same base DAG.
+            List<TaskGraph> dags = sweep.run(SweepExecutor.DAG_STREAM, taskSizes, (taskCount, s) ->
+                    TaskGraph.of(TaskDagGenerator.generateRandomDAG(taskCount, DeadlineModel.analytical(20), s)));
+            Map<Integer, TaskGraph> baseDags = new HashMap<>();
+            for (int i = 0; i < taskSizes.size(); i++) baseDags.put(taskSizes.get(i), dags.get(i));
+
+            rows = sweep.run(cells, (cell, s) -> {
+                TaskGraph baseDag = baseDags.get(cell.tasks());
+                SimulationResult res;
+                if (cell.algorithm().equals("CPOP")) {
+                    res = SingleSimulationRunner.runSimulation(DagRun.of(baseDag), cell.edge(), s);
+                } else {
+                    PSOScheduler pso = new PSOScheduler(PSOConfig.builder().seed(s)
+                            .fitnessListener((iter, fitness) -> sink.fitness(cell.toString(), iter, fitness))
+                            .checkpoint(journal.checkpointFor(cell), checkpointEvery)
+                            .resume(resume)
+                            .build());
+                    DagRun optimized = pso.schedule(baseDag, cell.edge());
+                    res = SingleSimulationRunner.runSimulation(optimized, cell.edge(), s);
+                    System.out.println("PSO finished (" + cell + "): " + pso.getRunStats());
+                }
+                ResultSink.Row row = ResultSink.Row.of(cell.toString(), cell.algorithm(), cell.tasks(), cell.edge(), res);
+                sink.result(row);
+                return row;
+            }, journal);
         }
 
         System.out.println("\n\n=========== Final Comparison Table ===========");
-        for (ComparisonResult r : results) System.out.println(r);
+        for (ResultSink.Row r : rows) System.out.println(ComparisonResult.of(r));
+
+        System.out.println("\nWhere the time went (also in metrics.json / metrics.prom):");
+        System.out.print(Metrics.report());
+        Metrics.export(dir);
 
-        ChartPlotter.showComparisonChart("makespan", results);
-        ChartPlotter.showComparisonChart("energy", results);
-        ChartPlotter.showComparisonChart("missratio", results);
-        ChartPlotter.showComparisonChart("qos", results);
+        ChartRenderer.present(dir, true, false);
     }
 }
\ No newline at end of file
@@ -0,0 +1,47 @@
+package com.mycompany.app;
+
+// Scores a PSO position (task -> VM mapping plus CSR per-VM execution order). The engine holds the
+// immutable problem data; each particle gets its own Evaluator with private scratch state, so
+// evaluators are never shared between threads.
+public interface FitnessEngine {
+
+    Factory LOAD_PROXY = LoadProxyFitness::new;
+    Factory LIST_SCHEDULE = (graph, vmCount) -> new ListScheduleFitness(graph, SimulationUtils.createVmList(vmCount));
+
+    Evaluator newEvaluator();
+
+    static double combine(double makespan, double qos) {
+        return 0.5 * (makespan / 10.0) - 0.3 * qos;
+    }
+
+    // Objectives of the multi-objective mode, all minimised: makespan, energy and 1 - QoS.
+    int OBJECTIVES = 3;
+
+    // Energy proxy of one VM busy for `busy` seconds of a `makespan`-long schedule: it draws 100 W
+    // plus 150 W scaled by its utilisation, busy / makespan, while it runs.
+    static double energy(double busy, double makespan) {
+        if (busy == 0) return 0;
+        return (100 + 150 * busy / makespan) * busy;
+    }
+
+    interface Evaluator {
+
+        double evaluate(int[] mapping, int[] orderStart, int[] orderTasks);
+
+        // Called after a move with the tasks that changed VM (each listed once, together with the VM
+        // they left). Engines without a delta model just re-evaluate.
+        default double update(int[] mapping, int[] orderStart, int[] orderTasks,
+                              int[] changed, int[] changedFrom, int changedCount) {
+            return evaluate(mapping, orderStart, orderTasks);
+        }
+
+        // Writes the OBJECTIVES costs of the position evaluated last into `out`. Every engine has to
+        // provide them, so any engine can run in the multi-objective mode.
+        void objectives(double[] out);
+    }
+
+    @FunctionalInterface
+    interface Factory {
+        FitnessEngine create(TaskGraph graph, int vmCount);
+    }
+}
@@ -15,6 +15,12 @@ import java.util.List;
     public FitnessPlotter(String title, List<Double> fitnessValues) {
         super(title);
 
+        ChartPanel panel = new ChartPanel(chart(title, fitnessValues));
+        panel.setPreferredSize(new java.awt.Dimension(800, 600));
+        setContentPane(panel);
+    }
+
+    public static JFreeChart chart(String title, List<Double> fitnessValues) {
         XYSeries series = new XYSeries("Best Fitness");
         for (int i = 0; i < fitnessValues.size(); i++) {
             series.add(i + 1, fitnessValues.get(i));
@@ -22,7 +28,7 @@ import java.util.List;
 
         XYSeriesCollection dataset = new XYSeriesCollection(series);
 
-        JFreeChart chart = ChartFactory.createXYLineChart(
+        return ChartFactory.createXYLineChart(
                 title,
                 "Iteration",
                 "Fitness",
@@ -30,10 +36,6 @@ import java.util.List;
                 PlotOrientation.VERTICAL,
                 true, true, false
         );
-
-        ChartPanel panel = new ChartPanel(chart);
-        panel.setPreferredSize(new java.awt.Dimension(800, 600));
-        setContentPane(panel);
     }
 
     public static void show(String title, List<Double> fitnessValues) {
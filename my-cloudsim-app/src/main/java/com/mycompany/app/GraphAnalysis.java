@@ -0,0 +1,199 @@
+package com.mycompany.app;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+// Level structure and CPOP ranks of a TaskGraph, computed iteratively over its CSR arrays:
+//
+//   level[t]  0 for entry tasks, else 1 + the deepest parent level
+//   rankD[t]  weight of the heaviest entry -> t path, t included (SimulationUtils.computeRankD)
+//   rankU[t]  weight of the heaviest t -> exit path, t included (SimulationUtils.computeRankU)
+//
+// `order` lists the tasks level by level, ascending id inside a level, which is a topological
+// order; level l is order[levelStart[l] .. levelStart[l + 1]). Tasks of one level never depend on
+// each other, so wide levels are ranked in parallel.
+public final class GraphAnalysis {
+
+    private static final int PARALLEL_LEVEL_WIDTH = 4096;
+    private static final int CACHE_SIZE = 16;
+
+    // Deep copies of one base DAG have equal graphs, so repeated runs share one analysis. A shared
+    // analysis keeps no reference to the graph it was computed from, whose deadlines may differ
+    // from those of the graphs that reuse it.
+    private static final Map<Key, GraphAnalysis> CACHE = Collections.synchronizedMap(
+            new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Key, GraphAnalysis> eldest) {
+                    return size() > CACHE_SIZE;
+                }
+            });
+
+    public final int[] level;
+    public final int[] order;
+    public final int[] levelStart;
+    public final double[] rankU, rankD;
+    public final double criticalPathLength;
+    private final int[] criticalPath;
+
+    private GraphAnalysis(TaskGraph graph, double[] weight) {
+        int n = graph.taskCount;
+
+        // Kahn's algorithm, FIFO: a task is dequeued after all its parents, so its level is final.
+        level = new int[n];
+        int[] pending = new int[n];
+        int[] queue = new int[n];
+        int head = 0, tail = 0, levels = n == 0 ? 0 : 1;
+        for (int t = 0; t < n; t++) {
+            pending[t] = graph.inDegree(t);
+            if (pending[t] == 0) queue[tail++] = t;
+        }
+        while (head < tail) {
+            int t = queue[head++];
+            for (int k = graph.childStart[t]; k < graph.childStart[t + 1]; k++) {
+                int c = graph.children[k];
+                level[c] = Math.max(level[c], level[t] + 1);
+                if (--pending[c] == 0) {
+                    queue[tail++] = c;
+                    levels = Math.max(levels, level[c] + 1);
+                }
+            }
+        }
+        if (tail < n) throw new IllegalArgumentException("The task graph has a cycle");
+
+        // Counting sort by level; scanning ids in ascending order keeps each level sorted by id.
+        levelStart = new int[levels + 1];
+        for (int t = 0; t < n; t++) levelStart[level[t] + 1]++;
+        for (int l = 0; l < levels; l++) levelStart[l + 1] += levelStart[l];
+        order = new int[n];
+        int[] cursor = Arrays.copyOf(levelStart, levels);
+        for (int t = 0; t < n; t++) order[cursor[level[t]]++] = t;
+
+        rankD = new double[n];
+        for (int l = 0; l < levels; l++) {
+            forLevel(l, t -> {
+                double max = 0;
+                for (int k = graph.parentStart[t]; k < graph.parentStart[t + 1]; k++) max = Math.max(max, rankD[graph.parents[k]]);
+                rankD[t] = weight[t] + max;
+            });
+        }
+        rankU = new double[n];
+        for (int l = levels - 1; l >= 0; l--) {
+            forLevel(l, t -> {
+                double max = 0;
+                for (int k = graph.childStart[t]; k < graph.childStart[t + 1]; k++) max = Math.max(max, rankU[graph.children[k]]);
+                rankU[t] = weight[t] + max;
+            });
+        }
+
+        double cp = 0;
+        for (int t = 0; t < n; t++) cp = Math.max(cp, rankD[t]);
+        criticalPathLength = cp;
+        criticalPath = heaviestPath(graph);
+    }
+
+    // Ranks weighted by task length (MI), as the CPOP scores use. Kept on the graph itself, and
+    // cached per graph content for graphs rebuilt from deep-copied node lists.
+    public static GraphAnalysis of(TaskGraph graph) {
+        GraphAnalysis memo = graph.analysis;
+        if (memo != null) return memo;
+        Key key = new Key(graph);
+        GraphAnalysis cached = CACHE.get(key);
+        if (cached == null) {
+            cached = new GraphAnalysis(graph, graph.length);
+            CACHE.put(key, cached);
+        }
+        graph.analysis = cached;
+        return cached;
+    }
+
+    // Ranks under custom per-task weights, e.g. execution times in seconds. Not cached.
+    public static GraphAnalysis of(TaskGraph graph, double[] weight) {
+        if (weight.length != graph.taskCount) {
+            throw new IllegalArgumentException("Need one weight per task: " + weight.length + " != " + graph.taskCount);
+        }
+        return new GraphAnalysis(graph, weight);
+    }
+
+    public int levelCount() {
+        return levelStart.length - 1;
+    }
+
+    // Heaviest entry -> exit path: start at the entry task with the largest rankU and keep stepping
+    // to the child that carries it (lowest id on ties).
+    public int[] criticalPath() {
+        return criticalPath.clone();
+    }
+
+    private int[] heaviestPath(TaskGraph graph) {
+        int n = graph.taskCount;
+        if (n == 0) return new int[0];
+        int t = -1;
+        for (int k = levelStart[0]; k < levelStart[1]; k++) {
+            int s = order[k];
+            if (t < 0 || rankU[s] > rankU[t]) t = s;
+        }
+
+        int[] path = new int[levelCount()];
+        int length = 0;
+        while (t >= 0) {
+            path[length++] = t;
+            int next = -1;
+            for (int k = graph.childStart[t]; k < graph.childStart[t + 1]; k++) {
+                int c = graph.children[k];
+                if (next < 0 || rankU[c] > rankU[next] || (rankU[c] == rankU[next] && c < next)) next = c;
+            }
+            t = next;
+        }
+        return Arrays.copyOf(path, length);
+    }
+
+    // Writes the ranks into the nodes' rankU/rankD fields, which the CPOP priority reads.
+    public void applyRanks(List<App.TaskNode> dag) {
+        for (App.TaskNode node : dag) {
+            node.rankU = rankU[node.id];
+            node.rankD = rankD[node.id];
+        }
+    }
+
+    private void forLevel(int l, IntConsumer body) {
+        int from = levelStart[l], to = levelStart[l + 1];
+        if (to - from >= PARALLEL_LEVEL_WIDTH) {
+            IntStream.range(from, to).parallel().forEach(k -> body.accept(order[k]));
+        } else {
+            for (int k = from; k < to; k++) body.accept(order[k]);
+        }
+    }
+
+    // Everything the length-weighted analysis depends on: the lengths and the edges. Copied, since
+    // the graph's arrays are public and a cached key must not change under the LRU.
+    private static final class Key {
+        final double[] length;
+        final int[] parentStart, parents;
+        final int hash;
+
+        Key(TaskGraph g) {
+            this.length = g.length.clone();
+            this.parentStart = g.parentStart.clone();
+            this.parents = g.parents.clone();
+            this.hash = 31 * (31 * Arrays.hashCode(length) + Arrays.hashCode(parentStart)) + Arrays.hashCode(parents);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key k)) return false;
+            return hash == k.hash && Arrays.equals(length, k.length)
+                    && Arrays.equals(parentStart, k.parentStart) && Arrays.equals(parents, k.parents);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.mycompany.app;
+
+import org.cloudbus.cloudsim.vms.Vm;
+
+import java.util.Arrays;
+import java.util.List;
+
+// Precedence-aware analytical makespan that replays what runSimulation measures. A DagBroker submits
+// each task the moment its last parent finishes, and VMs run CloudSim's default time-shared cloudlet
+// scheduler: every submitted cloudlet executes at once, each PE's share being mips * vmPes /
+// requestedPes while the cloudlets on a VM ask for more PEs than it has. The evaluator simulates that
+// event by event. The per-VM execution order only decides which of the tasks released together the
+// broker submits first, so it does not change the score here either. CloudSim's minimum spacing of
+// events is not modelled, which can put simulated finish times a fraction of a second later.
+public class ListScheduleFitness implements FitnessEngine {
+
+    private final TaskGraph graph;
+    private final int vmCount;
+    private final double[] vmMips;
+    private final int[] vmPes;
+    private final int[] sources;
+
+    public ListScheduleFitness(TaskGraph graph, List<Vm> vms) {
+        this.graph = graph;
+        this.vmCount = vms.size();
+        this.vmMips = new double[vmCount];
+        this.vmPes = new int[vmCount];
+        for (int vm = 0; vm < vmCount; vm++) {
+            vmMips[vm] = vms.get(vm).getMips();
+            vmPes[vm] = (int) vms.get(vm).getNumberOfPes();
+        }
+
+        int count = 0;
+        for (int t = 0; t < graph.taskCount; t++) if (graph.inDegree(t) == 0) count++;
+        sources = new int[count];
+        count = 0;
+        for (int t = 0; t < graph.taskCount; t++) if (graph.inDegree(t) == 0) sources[count++] = t;
+    }
+
+    @Override
+    public Evaluator newEvaluator() {
+        return new ScheduleEvaluator();
+    }
+
+    // Every cloudlet running on a VM progresses at the same per-PE rate, so a VM keeps one clock of
+    // work done per PE since the run began (`work`). A task submitted at work w finishes when that
+    // clock reaches w + length; the running tasks of a VM sit in a min-heap on that target, stored in
+    // the VM's slice [orderStart[vm], orderStart[vm + 1]) of `heap`.
+    private class ScheduleEvaluator implements Evaluator {
+        private final int n = graph.taskCount;
+        private final int[] pending = new int[n];
+        private final double[] start = new double[n];
+        private final double[] target = new double[n];
+        private final int[] heap = new int[n];
+        private final int[] heapSize = new int[vmCount];
+        private final double[] work = new double[vmCount];
+        private final int[] requested = new int[vmCount];     // PEs asked for by the running cloudlets
+        private final double[] vmBusy = new double[vmCount];   // VM-seconds of full utilisation
+        private double makespan, qos;               // of the last evaluation, for objectives()
+
+        @Override
+        public double evaluate(int[] mapping, int[] orderStart, int[] orderTasks) {
+            for (int t = 0; t < n; t++) pending[t] = graph.inDegree(t);
+            Arrays.fill(heapSize, 0);
+            Arrays.fill(work, 0);
+            Arrays.fill(requested, 0);
+            Arrays.fill(vmBusy, 0);
+
+            double now = 0, makespan = 0, qos = 0;
+            int running = 0;
+            for (int t : sources) {
+                submit(t, mapping[t], 0, orderStart);
+                running++;
+            }
+
+            while (running > 0) {
+                int vm = -1;
+                double next = Double.MAX_VALUE;
+                for (int v = 0; v < vmCount; v++) {
+                    if (heapSize[v] == 0) continue;
+                    double finish = now + (target[heap[orderStart[v]]] - work[v]) / rate(v);
+                    if (finish < next) {
+                        next = finish;
+                        vm = v;
+                    }
+                }
+                for (int v = 0; v < vmCount; v++) if (heapSize[v] > 0) work[v] += rate(v) * (next - now);
+                now = next;
+
+                int t = pop(vm, orderStart[vm]);
+                work[vm] = target[t];
+                requested[vm] -= graph.pes[t];
+                running--;
+                makespan = now;
+                qos += 1 - Math.max(0, (now - graph.deadline[t]) / (now - start[t]));
+
+                for (int c = graph.childStart[t]; c < graph.childStart[t + 1]; c++) {
+                    int child = graph.children[c];
+                    if (--pending[child] == 0) {
+                        submit(child, mapping[child], now, orderStart);
+                        running++;
+                    }
+                }
+            }
+
+            this.makespan = makespan;
+            this.qos = qos = Math.max(0, qos / n);
+            return FitnessEngine.combine(makespan, qos);
+        }
+
+        private double rate(int vm) {
+            return vmMips[vm] * Math.min(1.0, (double) vmPes[vm] / requested[vm]);
+        }
+
+        private void submit(int t, int vm, double now, int[] orderStart) {
+            start[t] = now;
+            target[t] = work[vm] + graph.length[t];
+            requested[vm] += graph.pes[t];
+            vmBusy[vm] += graph.length[t] * graph.pes[t] / (vmMips[vm] * vmPes[vm]);
+
+            int base = orderStart[vm], i = heapSize[vm]++;
+            while (i > 0) {
+                int parent = (i - 1) >> 1;
+                if (target[heap[base + parent]] <= target[t]) break;
+                heap[base + i] = heap[base + parent];
+                i = parent;
+            }
+            heap[base + i] = t;
+        }
+
+        private int pop(int vm, int base) {
+            int top = heap[base], last = heap[base + --heapSize[vm]], size = heapSize[vm], i = 0;
+            while (2 * i + 1 < size) {
+                int child = 2 * i + 1;
+                if (child + 1 < size && target[heap[base + child + 1]] < target[heap[base + child]]) child++;
+                if (target[last] <= target[heap[base + child]]) break;
+                heap[base + i] = heap[base + child];
+                i = child;
+            }
+            heap[base + i] = last;
+            return top;
+        }
+
+        @Override
+        public void objectives(double[] out) {
+            double energy = 0;
+            for (int vm = 0; vm < vmCount; vm++) energy += FitnessEngine.energy(vmBusy[vm], makespan);
+            out[0] = makespan;
+            out[1] = energy;
+            out[2] = 1 - qos;
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.mycompany.app;
+
+import java.util.Arrays;
+
+// The PSO load proxy: per-VM work over a fixed capacity gives the makespan, and each task's QoS
+// term is judged against the finish time of the VM it sits on.
+public class LoadProxyFitness implements FitnessEngine {
+
+    public static final double CAP = 2000.0;
+
+    private final int taskCount, vmCount;
+    private final double[] taskLength;
+    private final double[] taskDeadline;
+
+    public LoadProxyFitness(TaskGraph graph, int vmCount) {
+        this.taskCount = graph.taskCount;
+        this.vmCount = vmCount;
+        this.taskLength = graph.length;
+        this.taskDeadline = graph.deadline;
+    }
+
+    // Reference full recomputation; the incremental State must agree with it.
+    public double evaluate(int[] mapping, int[] orderStart, int[] orderTasks, double[] vmWork) {
+        for (int vm = 0; vm < vmCount; vm++) {
+            double work = 0;
+            for (int k = orderStart[vm]; k < orderStart[vm + 1]; k++) {
+                work += taskLength[orderTasks[k]];
+            }
+            vmWork[vm] = work;
+        }
+
+        double makespan = 0;
+        for (int vm = 0; vm < vmCount; vm++) {
+            double exec = vmWork[vm] / CAP;
+            makespan = Math.max(makespan, exec);
+        }
+
+        double qos = 0;
+        for (int i = 0; i < taskCount; i++) {
+            double ft = vmWork[mapping[i]] / CAP;
+            double d = taskDeadline[i];
+            double l = taskLength[i] / CAP;
+            qos += 1 - Math.max(0, (ft - d) / l);
+        }
+
+        qos = Math.max(0, qos / taskCount);
+        return FitnessEngine.combine(makespan, qos);
+    }
+
+    @Override
+    public State newEvaluator() {
+        return new State();
+    }
+
+    // Per-particle incremental evaluator. It keeps the load of every VM and the summed QoS penalty of
+    // the tasks on it, so a move only touches the changed tasks and the VMs they left or joined.
+    public class State implements Evaluator {
+        private final double[] vmWork = new double[vmCount];
+        private final double[] vmPenalty = new double[vmCount];
+        private final boolean[] dirty = new boolean[vmCount];
+        private final int[] dirtyVms = new int[vmCount];
+        private double penaltySum;
+        private int maxVm;
+
+        @Override
+        public double evaluate(int[] mapping, int[] orderStart, int[] orderTasks) {
+            Arrays.fill(vmWork, 0);
+            for (int t = 0; t < taskCount; t++) vmWork[mapping[t]] += taskLength[t];
+
+            penaltySum = 0;
+            maxVm = 0;
+            for (int vm = 0; vm < vmCount; vm++) {
+                vmPenalty[vm] = penalty(vm, orderStart, orderTasks);
+                penaltySum += vmPenalty[vm];
+                if (vmWork[vm] > vmWork[maxVm]) maxVm = vm;
+            }
+            return current();
+        }
+
+        // changed[k] moved from VM changedFrom[k] to mapping[changed[k]], each task listed at most
+        // once; orderStart/orderTasks must already describe the new grouping.
+        @Override
+        public double update(int[] mapping, int[] orderStart, int[] orderTasks,
+                             int[] changed, int[] changedFrom, int changedCount) {
+            if (changedCount == 0) return current();
+            // Past this point rescanning the dirty VMs costs about as much as starting over.
+            if (changedCount * 4 > taskCount) return evaluate(mapping, orderStart, orderTasks);
+
+            int dirtyCount = 0;
+            for (int k = 0; k < changedCount; k++) {
+                int t = changed[k], from = changedFrom[k], to = mapping[t];
+                vmWork[from] -= taskLength[t];
+                vmWork[to] += taskLength[t];
+                if (!dirty[from]) { dirty[from] = true; dirtyVms[dirtyCount++] = from; }
+                if (!dirty[to]) { dirty[to] = true; dirtyVms[dirtyCount++] = to; }
+            }
+
+            // If the previous maximum was touched it may have shrunk, and only a rescan can tell
+            // which VM took over; otherwise the untouched VMs are all still at or below it.
+            int previousMax = maxVm;
+            boolean rescan = false;
+            for (int k = 0; k < dirtyCount; k++) {
+                int vm = dirtyVms[k];
+                dirty[vm] = false;
+                double pen = penalty(vm, orderStart, orderTasks);
+                penaltySum += pen - vmPenalty[vm];
+                vmPenalty[vm] = pen;
+                if (vm == previousMax) rescan = true;
+                else if (vmWork[vm] > vmWork[maxVm]) maxVm = vm;
+            }
+
+            if (rescan) {
+                for (int vm = 0; vm < vmCount; vm++) if (vmWork[vm] > vmWork[maxVm]) maxVm = vm;
+            }
+            return current();
+        }
+
+        @Override
+        public void objectives(double[] out) {
+            double makespan = vmWork[maxVm] / CAP, energy = 0;
+            for (int vm = 0; vm < vmCount; vm++) energy += FitnessEngine.energy(vmWork[vm] / CAP, makespan);
+            out[0] = makespan;
+            out[1] = energy;
+            out[2] = 1 - Math.max(0, (taskCount - penaltySum) / taskCount);
+        }
+
+        private double penalty(int vm, int[] orderStart, int[] orderTasks) {
+            double ft = vmWork[vm] / CAP;
+            double pen = 0;
+            for (int k = orderStart[vm]; k < orderStart[vm + 1]; k++) {
+                int t = orderTasks[k];
+                pen += Math.max(0, (ft - taskDeadline[t]) / (taskLength[t] / CAP));
+            }
+            return pen;
+        }
+
+        private double current() {
+            double makespan = vmWork[maxVm] / CAP;
+            double qos = Math.max(0, (taskCount - penaltySum) / taskCount);
+            return FitnessEngine.combine(makespan, qos);
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package com.mycompany.app;
+
+import java.util.Arrays;
+
+// Refinement stage of the memetic PSO. It improves a particle's position in place. Every candidate
+// move is scored through the particle's own incremental evaluator, and only moves that lower the
+// fitness are kept, so a refined position is never worse than the one PSO produced.
+// PSOConfig.localSearch(search, topK) applies it to the best particles of every iteration.
+@FunctionalInterface
+public interface LocalSearch {
+
+    void improve(Position position);
+
+    default LocalSearch then(LocalSearch next) {
+        return p -> {
+            improve(p);
+            next.improve(p);
+        };
+    }
+
+    // Up to `rounds` improving moves between the most and the least loaded VM. A round first tries
+    // to shift one task across, then to swap a pair whose length difference narrows the gap, and
+    // the search stops at the first round that finds nothing.
+    static LocalSearch loadBalance(int rounds) {
+        if (rounds < 1) throw new IllegalArgumentException("rounds must be >= 1: " + rounds);
+        return p -> {
+            for (int r = 0; r < rounds; r++) {
+                int max = 0, min = 0;
+                for (int vm = 1; vm < p.vmCount; vm++) {
+                    if (p.load(vm) > p.load(max)) max = vm;
+                    if (p.load(vm) < p.load(min)) min = vm;
+                }
+                if (max == min || !(shift(p, max, min) || swap(p, max, min))) return;
+            }
+        };
+    }
+
+    // Takes the tasks of the critical path (heaviest rankU chain) in order and moves each one to the
+    // first VM where it lowers the fitness. It goes into that VM's order ahead of every task with a
+    // lower rankU, which is where the CPOP priority would run it.
+    static LocalSearch criticalPath() {
+        return p -> {
+            GraphAnalysis ranks = GraphAnalysis.of(p.graph);
+            for (int t : ranks.criticalPath()) {
+                for (int vm = 0; vm < p.vmCount; vm++) {
+                    if (vm == p.vmOf(t)) continue;
+                    int index = 0;
+                    while (index < p.taskCount(vm) && ranks.rankU[p.taskAt(vm, index)] >= ranks.rankU[t]) index++;
+                    if (p.tryMove(t, vm, index)) break;
+                }
+            }
+        };
+    }
+
+    private static boolean shift(Position p, int from, int to) {
+        double gap = p.load(from) - p.load(to);
+        for (int k = 0; k < p.taskCount(from); k++) {
+            int t = p.taskAt(from, k);
+            if (p.graph.length[t] < gap && p.tryMove(t, to, p.taskCount(to))) return true;
+        }
+        return false;
+    }
+
+    // For every task on `from`, the partner on `to` that balances the two loads best.
+    private static boolean swap(Position p, int from, int to) {
+        double gap = p.load(from) - p.load(to);
+        for (int k = 0; k < p.taskCount(from); k++) {
+            int t = p.taskAt(from, k), partner = -1;
+            double best = Double.MAX_VALUE;
+            for (int j = 0; j < p.taskCount(to); j++) {
+                int u = p.taskAt(to, j);
+                double d = p.graph.length[t] - p.graph.length[u];
+                if (d > 0 && d < gap && Math.abs(gap - 2 * d) < best) {
+                    best = Math.abs(gap - 2 * d);
+                    partner = u;
+                }
+            }
+            if (partner >= 0 && p.trySwap(t, partner)) return true;
+        }
+        return false;
+    }
+
+    // A particle's position as local search sees it: read access to the mapping, the per-VM order
+    // and the VM loads, plus moves that are kept only when they improve the fitness. Rejected
+    // moves are undone in place, order included, and re-scored so the evaluator stays in step.
+    final class Position {
+        public final TaskGraph graph;
+        public final int vmCount;
+
+        private final int[] mapping, orderStart, orderTasks;
+        private final FitnessEngine.Evaluator eval;
+        private final double[] load;              // summed task length per VM
+        private final int[] changed = new int[2], changedFrom = new int[2];
+        private double fitness;
+        private int evaluations;
+
+        Position(TaskGraph graph, int vmCount, int[] mapping, int[] orderStart, int[] orderTasks,
+                 FitnessEngine.Evaluator eval) {
+            this.graph = graph;
+            this.vmCount = vmCount;
+            this.mapping = mapping;
+            this.orderStart = orderStart;
+            this.orderTasks = orderTasks;
+            this.eval = eval;
+            this.load = new double[vmCount];
+        }
+
+        // Starts a refinement of the current arrays; `fitness` must be their latest evaluation.
+        void reset(double fitness) {
+            this.fitness = fitness;
+            this.evaluations = 0;
+            Arrays.fill(load, 0);
+            for (int t = 0; t < graph.taskCount; t++) load[mapping[t]] += graph.length[t];
+        }
+
+        int evaluations() {
+            return evaluations;
+        }
+
+        public double fitness() {
+            return fitness;
+        }
+
+        public int vmOf(int task) {
+            return mapping[task];
+        }
+
+        public double load(int vm) {
+            return load[vm];
+        }
+
+        public int taskCount(int vm) {
+            return orderStart[vm + 1] - orderStart[vm];
+        }
+
+        // The task at position `index` of the VM's execution order.
+        public int taskAt(int vm, int index) {
+            return orderTasks[orderStart[vm] + index];
+        }
+
+        // Moves `task` to position `index` of `vm`'s order (counted without the task itself).
+        public boolean tryMove(int task, int vm, int index) {
+            int from = mapping[task];
+            int back = relocate(task, vm, index);
+            changed[0] = task;
+            changedFrom[0] = from;
+            if (improves(1)) return true;
+
+            relocate(task, from, back);
+            changedFrom[0] = vm;
+            fitness = score(1);
+            return false;
+        }
+
+        // Exchanges two tasks on different VMs, each taking the other's place in the order.
+        public boolean trySwap(int a, int b) {
+            int va = mapping[a], vb = mapping[b];
+            if (va == vb) throw new IllegalArgumentException("Tasks " + a + " and " + b + " share VM " + va);
+            int ib = indexOf(b, vb);
+            int ia = relocate(a, vb, ib);
+            relocate(b, va, ia);
+            changed[0] = a;
+            changedFrom[0] = va;
+            changed[1] = b;
+            changedFrom[1] = vb;
+            if (improves(2)) return true;
+
+            relocate(a, va, ia);
+            relocate(b, vb, ib);
+            changedFrom[0] = vb;
+            changedFrom[1] = va;
+            fitness = score(2);
+            return false;
+        }
+
+        private boolean improves(int count) {
+            double f = score(count);
+            if (f >= fitness) return false;
+            fitness = f;
+            return true;
+        }
+
+        private double score(int count) {
+            evaluations++;
+            return eval.update(mapping, orderStart, orderTasks, changed, changedFrom, count);
+        }
+
+        private int indexOf(int task, int vm) {
+            int k = orderStart[vm];
+            while (orderTasks[k] != task) k++;
+            return k - orderStart[vm];
+        }
+
+        // Moves the task inside the CSR order by shifting the tasks in between one slot; returns
+        // the index it had in its old VM's order.
+        private int relocate(int task, int to, int index) {
+            int from = mapping[task];
+            int back = indexOf(task, from);
+            int pos = orderStart[from] + back;
+            int dest;
+            if (from < to) {
+                dest = orderStart[to] - 1 + index;
+                System.arraycopy(orderTasks, pos + 1, orderTasks, pos, dest - pos);
+                for (int vm = from + 1; vm <= to; vm++) orderStart[vm]--;
+            } else {
+                dest = orderStart[to] + index;
+                if (dest > pos) System.arraycopy(orderTasks, pos + 1, orderTasks, pos, dest - pos);
+                else System.arraycopy(orderTasks, dest, orderTasks, dest + 1, pos - dest);
+                for (int vm = to + 1; vm <= from; vm++) orderStart[vm]++;
+            }
+            orderTasks[dest] = task;
+            mapping[task] = to;
+            load[from] -= graph.length[task];
+            load[to] += graph.length[task];
+            return back;
+        }
+    }
+}
@@ -0,0 +1,294 @@
+package com.mycompany.app;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+// Process-wide timers and counters for the hot paths of a scheduler run: PSO iterations and their
+// evaluation and move phases, DAG copies and the build and run phases of every CloudSim
+// simulation. Components register theirs once in a static field and record into
+// them from any thread; the sums are LongAdders, so sweep threads and PSO workers do not contend.
+//
+// Every timed section is also a JFR event (com.mycompany.app.Timer) carrying the timer name and the
+// bytes the thread allocated inside it, so a recording started with -XX:StartFlightRecording shows
+// the same breakdown on a timeline. Without a recording the event is still allocated and timed, only
+// its commit is skipped, so a span costs an object or two and a few adder updates: time phases, not
+// per-particle work.
+//
+// A timer that tracks allocations also reads the thread's allocated-bytes counter at both ends, a
+// few tens of nanoseconds more, so only the coarsest timers turn it on. -Dmetrics=off turns every
+// timer into a no-op. The runners write the totals next to their results with export(dir).
+public final class Metrics {
+
+    static final boolean ENABLED = !"off".equals(System.getProperty("metrics"));
+
+    private static final com.sun.management.ThreadMXBean THREADS = allocationCounter();
+    private static final Map<String, Object> REGISTRY = new TreeMap<>();
+
+    private Metrics() {}
+
+    public static final class Counter {
+        final String name, help;
+        private final LongAdder value = new LongAdder();
+
+        private Counter(String name, String help) {
+            this.name = name;
+            this.help = help;
+        }
+
+        public void add(long n) {
+            if (ENABLED) value.add(n);
+        }
+
+        public void increment() {
+            add(1);
+        }
+
+        public long get() {
+            return value.sum();
+        }
+    }
+
+    public static final class Timer {
+        final String name, help;
+        final boolean trackAllocations;
+        private final LongAdder count = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+        private final LongAdder allocated = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+        private Timer(String name, String help, boolean trackAllocations) {
+            this.name = name;
+            this.help = help;
+            this.trackAllocations = trackAllocations && THREADS != null;
+        }
+
+        // Opens a section, to be closed on the same thread: try (var span = TIMER.start()) { ... }
+        public Span start() {
+            return ENABLED ? new Span(this) : Span.NOOP;
+        }
+
+        public void record(long elapsedNanos, long allocatedBytes) {
+            count.increment();
+            nanos.add(elapsedNanos);
+            maxNanos.accumulate(elapsedNanos);
+            if (allocatedBytes > 0) allocated.add(allocatedBytes);
+        }
+
+        public long count() {
+            return count.sum();
+        }
+
+        public long totalNanos() {
+            return nanos.sum();
+        }
+
+        public long maxNanos() {
+            return maxNanos.get();
+        }
+
+        public long allocatedBytes() {
+            return allocated.sum();
+        }
+    }
+
+    public static final class Span implements AutoCloseable {
+        static final Span NOOP = new Span(null);
+
+        private final Timer timer;
+        private final long startNanos, startBytes;
+        private final TimerEvent event;
+
+        private Span(Timer timer) {
+            this.timer = timer;
+            if (timer == null) {
+                startNanos = startBytes = 0;
+                event = null;
+                return;
+            }
+            event = new TimerEvent();
+            event.begin();
+            startBytes = timer.trackAllocations ? THREADS.getCurrentThreadAllocatedBytes() : 0;
+            startNanos = System.nanoTime();
+        }
+
+        @Override
+        public void close() {
+            if (timer == null) return;
+            long elapsed = System.nanoTime() - startNanos;
+            long bytes = timer.trackAllocations ? THREADS.getCurrentThreadAllocatedBytes() - startBytes : 0;
+            timer.record(elapsed, bytes);
+            event.end();
+            if (event.shouldCommit()) {
+                event.timer = timer.name;
+                event.allocated = bytes;
+                event.commit();
+            }
+        }
+    }
+
+    @Name("com.mycompany.app.Timer")
+    @Label("Scheduler Timer")
+    @Category({"CloudSim App"})
+    @Description("A section timed by a Metrics.Timer")
+    @StackTrace(false)
+    static final class TimerEvent extends Event {
+        @Label("Timer")
+        String timer;
+
+        @Label("Allocated")
+        @DataAmount
+        long allocated;
+    }
+
+    // Returns the already registered counter when `name` is taken by one.
+    public static synchronized Counter counter(String name, String help) {
+        Object m = REGISTRY.computeIfAbsent(name, k -> new Counter(name, help));
+        if (!(m instanceof Counter c)) throw new IllegalArgumentException(name + " is not a counter");
+        return c;
+    }
+
+    public static synchronized Timer timer(String name, String help, boolean trackAllocations) {
+        Object m = REGISTRY.computeIfAbsent(name, k -> new Timer(name, help, trackAllocations));
+        if (!(m instanceof Timer t)) throw new IllegalArgumentException(name + " is not a timer");
+        return t;
+    }
+
+    public static Timer timer(String name, String help) {
+        return timer(name, help, false);
+    }
+
+    // Writes metrics.json and metrics.prom (Prometheus text format) to `dir`.
+    public static void export(Path dir) {
+        try {
+            Files.createDirectories(dir);
+            Files.writeString(dir.resolve("metrics.json"), toJson());
+            Files.writeString(dir.resolve("metrics.prom"), toPrometheus());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write metrics to " + dir, e);
+        }
+    }
+
+    static String toJson() {
+        StringBuilder out = new StringBuilder("{\n  \"timers\": {");
+        String sep = "\n";
+        for (Timer t : metrics(Timer.class)) {
+            out.append(sep).append(String.format(Locale.ROOT,
+                    "    \"%s\": {\"count\": %d, \"totalSeconds\": %.6f, \"meanMillis\": %.4f, \"maxMillis\": %.4f, "
+                            + "\"allocatedBytes\": %d, \"allocationRate\": %.1f}",
+                    t.name, t.count(), t.totalNanos() / 1e9, meanMillis(t), t.maxNanos() / 1e6,
+                    t.allocatedBytes(), allocationRate(t)));
+            sep = ",\n";
+        }
+        out.append("\n  },\n  \"counters\": {");
+        sep = "\n";
+        for (Counter c : metrics(Counter.class)) {
+            out.append(sep).append(String.format(Locale.ROOT, "    \"%s\": %d", c.name, c.get()));
+            sep = ",\n";
+        }
+        out.append("\n  },\n  \"derived\": {\n");
+        out.append(String.format(Locale.ROOT, "    \"pso_evaluations_per_second\": %.1f\n  }\n}\n", evaluationsPerSecond()));
+        return out.toString();
+    }
+
+    // Timers become summaries in seconds plus a max gauge and an allocated-bytes counter.
+    static String toPrometheus() {
+        StringBuilder out = new StringBuilder();
+        for (Timer t : metrics(Timer.class)) {
+            String n = "scheduler_" + t.name + "_seconds";
+            out.append("# HELP ").append(n).append(' ').append(t.help).append('\n');
+            out.append("# TYPE ").append(n).append(" summary\n");
+            out.append(String.format(Locale.ROOT, "%s_count %d%n%s_sum %.9f%n", n, t.count(), n, t.totalNanos() / 1e9));
+            out.append("# TYPE ").append(n).append("_max gauge\n");
+            out.append(String.format(Locale.ROOT, "%s_max %.9f%n", n, t.maxNanos() / 1e9));
+            if (t.trackAllocations) {
+                String a = "scheduler_" + t.name + "_allocated_bytes_total";
+                out.append("# TYPE ").append(a).append(" counter\n");
+                out.append(a).append(' ').append(t.allocatedBytes()).append('\n');
+            }
+        }
+        for (Counter c : metrics(Counter.class)) {
+            String n = "scheduler_" + c.name + "_total";
+            out.append("# HELP ").append(n).append(' ').append(c.help).append('\n');
+            out.append("# TYPE ").append(n).append(" counter\n");
+            out.append(n).append(' ').append(c.get()).append('\n');
+        }
+        out.append("# TYPE scheduler_pso_evaluations_per_second gauge\n");
+        out.append(String.format(Locale.ROOT, "scheduler_pso_evaluations_per_second %.1f%n", evaluationsPerSecond()));
+        return out.toString();
+    }
+
+    // Human-readable breakdown of the timers, largest total first.
+    public static String report() {
+        List<Timer> timers = metrics(Timer.class);
+        timers.sort((a, b) -> Long.compare(b.totalNanos(), a.totalNanos()));
+        StringBuilder out = new StringBuilder(String.format("%-20s %10s %12s %12s %12s %14s%n",
+                "timer", "count", "total s", "mean ms", "max ms", "alloc MB/s"));
+        for (Timer t : timers) {
+            if (t.count() == 0) continue;
+            out.append(String.format("%-20s %10d %12.3f %12.4f %12.4f %14s%n", t.name, t.count(), t.totalNanos() / 1e9,
+                    meanMillis(t), t.maxNanos() / 1e6, t.trackAllocations ? String.format("%.1f", allocationRate(t) / 1e6) : "-"));
+        }
+        out.append(String.format("PSO fitness evaluations/s: %.0f%n", evaluationsPerSecond()));
+        return out.toString();
+    }
+
+    // Evaluations over the time spent in evaluation phases; with parallel PSO that is the
+    // throughput of all workers together.
+    static double evaluationsPerSecond() {
+        long nanos = PSOScheduler.EVALUATE.totalNanos();
+        return nanos == 0 ? 0 : PSOScheduler.EVALUATIONS.get() / (nanos / 1e9);
+    }
+
+    // Zeroes every metric, e.g. between two measured runs in one JVM.
+    public static synchronized void reset() {
+        for (Object m : REGISTRY.values()) {
+            if (m instanceof Counter c) {
+                c.value.reset();
+            } else if (m instanceof Timer t) {
+                t.count.reset();
+                t.nanos.reset();
+                t.allocated.reset();
+                t.maxNanos.reset();
+            }
+        }
+    }
+
+    private static double meanMillis(Timer t) {
+        return t.count() == 0 ? 0 : t.totalNanos() / 1e6 / t.count();
+    }
+
+    private static double allocationRate(Timer t) {
+        return t.totalNanos() == 0 ? 0 : t.allocatedBytes() / (t.totalNanos() / 1e9);
+    }
+
+    private static synchronized <M> List<M> metrics(Class<M> type) {
+        List<M> out = new ArrayList<>();
+        for (Object m : REGISTRY.values()) if (type.isInstance(m)) out.add(type.cast(m));
+        return out;
+    }
+
+    private static com.sun.management.ThreadMXBean allocationCounter() {
+        if (!(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threads)) return null;
+        if (!threads.isThreadAllocatedMemorySupported()) return null;
+        if (!threads.isThreadAllocatedMemoryEnabled()) threads.setThreadAllocatedMemoryEnabled(true);
+        return threads;
+    }
+}
@@ -1,29 +1,71 @@
 package com.mycompany.app;
 
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
 
 public class PSOBatchRunner {
+
+    record Cell(int tasks, int edge) {
+        @Override
+        public String toString() {
+            return "tasks=" + tasks + " edge=" + edge;
+        }
+    }
+
     public static void main(String[] args) {
         List<Integer> edgeOptions = List.of(10, 20, 30);
         List<Integer> taskCounts = List.of(100, 300, 500);
 
-        for (int taskCount : taskCounts) {
-            List<App.TaskNode> dag = TaskDagGenerator.generateRandomDAG(taskCount);
-
-            for (int edge : edgeOptions) {
-                PSOScheduler pso = new PSOScheduler();
-                List<App.TaskNode> scheduledDag = pso.schedule(dag, edge);
-                FitnessPlotter.show("Fitness over Iterations (tasks: " + taskCount + " edge: " + edge + ")", pso.getFitnessHistory());
-                var result = SingleSimulationRunner.runSimulation(scheduledDag, edge);
-
-                System.out.printf("Edge: %d, Tasks: %d → Makespan: %.2f, QoS: %.2f%%, Miss: %.2f%%, Energy: %.2f\n",
-                        edge, taskCount,
-                        result.makespan(),
-                        result.qosScore() * 100,
-                        result.deadlineMissRatio() * 100,
-                        result.totalExecutionTime()
-                );
-            }
+        List<Cell> cells = new ArrayList<>();
+        for (int taskCount : taskCounts)
+            for (int edge : edgeOptions) cells.add(new Cell(taskCount, edge));
+
+        long seed = Long.getLong("sweep.seed", RandomStreams.rootSeed());
+        System.out.printf("Sweep seed: %d (rerun with -Dsweep.seed=%d)\n", seed, seed);
+
+        boolean resume = SweepJournal.resumeRequested();
+        int checkpointEvery = Integer.getInteger("pso.checkpointEvery", 10);
+        Path dir = ResultSink.runDirectory("pso", seed);
+        System.out.println((resume ? "Resuming " : "Streaming results to ") + dir.toAbsolutePath());
+
+        List<ResultSink.Row> rows;
+        try (ResultSink sink = ResultSink.open(dir, resume);
+             SweepJournal<ResultSink.Row> journal = SweepJournal.open(dir.resolve("sweep.journal"), seed, cells.size(), ResultSink.Row.CODEC, resume);
+             SweepExecutor sweep = new SweepExecutor(SweepExecutor.defaultParallelism(), seed)) {
+            List<TaskGraph> dags = sweep.run(SweepExecutor.DAG_STREAM, taskCounts, (taskCount, s) ->
+                    TaskGraph.of(TaskDagGenerator.generateRandomDAG(taskCount, DeadlineModel.analytical(20), s)));
+
+            rows = sweep.run(cells, (cell, s) -> {
+                PSOScheduler pso = new PSOScheduler(PSOConfig.builder().seed(s)
+                        .fitnessListener((iter, fitness) -> sink.fitness(cell.toString(), iter, fitness))
+                        .checkpoint(journal.checkpointFor(cell), checkpointEvery)
+                        .resume(resume)
+                        .build());
+                DagRun scheduled = pso.schedule(dags.get(taskCounts.indexOf(cell.tasks())), cell.edge());
+                var result = SingleSimulationRunner.runSimulation(scheduled, cell.edge(), s);
+                System.out.println("PSO finished (" + cell + "): " + pso.getRunStats());
+                ResultSink.Row row = ResultSink.Row.of(cell.toString(), "PSO", cell.tasks(), cell.edge(), result);
+                sink.result(row);
+                return row;
+            }, journal);
+        }
+
+        // Report on the main thread, in grid order.
+        for (ResultSink.Row row : rows) {
+            System.out.printf("Edge: %d, Tasks: %d → Makespan: %.2f, QoS: %.2f%%, Miss: %.2f%%, Energy: %.2f\n",
+                    row.vms(), row.tasks(),
+                    row.makespan(),
+                    row.qos() * 100,
+                    row.missRatio() * 100,
+                    row.totalExecutionTime()
+            );
         }
+
+        System.out.println("\nWhere the time went (also in metrics.json / metrics.prom):");
+        System.out.print(Metrics.report());
+        Metrics.export(dir);
+
+        ChartRenderer.present(dir, false, true);
     }
 }
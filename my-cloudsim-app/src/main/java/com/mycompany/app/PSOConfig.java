@@ -0,0 +1,304 @@
+package com.mycompany.app;
+
+import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+
+// Immutable PSOScheduler settings. Defaults reproduce the original hard-coded scheduler: 200
+// particles, 100 iterations, constant inertia 0.9, c1 = 1.4, c2 = 1.1.
+public final class PSOConfig {
+
+    public enum Inertia { CONSTANT, LINEAR_DECREASING, CONSTRICTION }
+
+    // Receives the best fitness after every iteration, e.g. to stream the curve while the swarm runs.
+    @FunctionalInterface
+    public interface FitnessListener {
+        void onIteration(int iteration, double gBestFitness);
+    }
+
+    final int swarmSize;                  // 0 = sized per problem, see populationFor
+    final StoppingCriteria stopping;
+    final Inertia inertia;
+    final double inertiaStart, inertiaEnd;
+    final double c1Start, c1End, c2Start, c2End;
+    final long seed;
+    final ExecutorService executor;
+    final int parallelism;
+    final FitnessEngine.Factory fitness;
+    final ProgressMonitor progress;
+    final FitnessListener fitnessListener;
+    final int islands, migrationInterval;
+    final boolean verifyIncremental;
+    final VelocityKernel velocityKernel;
+    final Path checkpoint;                // null = no checkpoints
+    final int checkpointInterval;
+    final boolean resume;
+    final int archiveSize;                // 0 = single objective
+    final LocalSearch localSearch;        // null = plain PSO
+    final int localSearchTopK;
+
+    private PSOConfig(Builder b) {
+        this.swarmSize = b.swarmSize;
+        this.stopping = b.stopping;
+        this.inertia = b.inertia;
+        this.inertiaStart = b.inertiaStart;
+        this.inertiaEnd = b.inertiaEnd;
+        this.c1Start = b.c1Start;
+        this.c1End = b.c1End;
+        this.c2Start = b.c2Start;
+        this.c2End = b.c2End;
+        this.seed = b.seed;
+        this.executor = b.executor;
+        this.parallelism = b.executor == null ? 1 : b.parallelism;
+        this.fitness = b.fitness;
+        this.progress = b.progress;
+        this.fitnessListener = b.fitnessListener;
+        this.islands = b.islands;
+        this.migrationInterval = b.migrationInterval;
+        this.verifyIncremental = b.verifyIncremental;
+        this.velocityKernel = b.velocityKernel;
+        this.checkpoint = b.checkpoint;
+        this.checkpointInterval = b.checkpointInterval;
+        this.resume = b.resume;
+        this.archiveSize = b.archiveSize;
+        this.localSearch = b.localSearch;
+        this.localSearchTopK = b.localSearchTopK;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static PSOConfig defaults() {
+        return builder().build();
+    }
+
+    // Swarm size for the adaptive mode: grows with sqrt(tasks * VMs), i.e. with the size of the
+    // velocity matrix each particle searches, clamped to [20, 200].
+    public static int populationFor(int taskCount, int vmCount) {
+        int size = (int) Math.ceil(10 + 1.5 * Math.sqrt((double) taskCount * vmCount));
+        return Math.max(20, Math.min(200, size));
+    }
+
+    int swarmSizeFor(int taskCount, int vmCount) {
+        return swarmSize > 0 ? swarmSize : populationFor(taskCount, vmCount);
+    }
+
+    // Inertia weight for progress = iteration / (maxIterations - 1), in [0, 1].
+    double inertiaAt(double progress) {
+        return switch (inertia) {
+            case CONSTANT -> inertiaStart;
+            case LINEAR_DECREASING -> inertiaStart - (inertiaStart - inertiaEnd) * progress;
+            case CONSTRICTION -> 1.0;
+        };
+    }
+
+    double c1At(double progress) {
+        return c1Start + (c1End - c1Start) * progress;
+    }
+
+    double c2At(double progress) {
+        return c2Start + (c2End - c2Start) * progress;
+    }
+
+    // Clerc's constriction factor chi = 2 / |2 - phi - sqrt(phi^2 - 4 phi)| with phi = c1 + c2; it
+    // scales the whole velocity update. 1 for the inertia-weight strategies.
+    double constrictionAt(double progress) {
+        if (inertia != Inertia.CONSTRICTION) return 1.0;
+        double phi = c1At(progress) + c2At(progress);
+        return 2.0 / Math.abs(2.0 - phi - Math.sqrt(phi * phi - 4.0 * phi));
+    }
+
+    public static final class Builder {
+        private int swarmSize = 200;
+        private StoppingCriteria stopping = StoppingCriteria.maxIterations(100);
+        private Inertia inertia = Inertia.CONSTANT;
+        private double inertiaStart = 0.9, inertiaEnd = 0.9;
+        private double c1Start = 1.4, c1End = 1.4, c2Start = 1.1, c2End = 1.1;
+        private long seed = RandomStreams.nextSeed();
+        private ExecutorService executor;
+        private int parallelism = 1;
+        private FitnessEngine.Factory fitness = FitnessEngine.LOAD_PROXY;
+        private ProgressMonitor progress = ProgressMonitor.everyN(20);
+        private FitnessListener fitnessListener = (iteration, fitness) -> {};
+        private int islands = 1, migrationInterval = 10;
+        private boolean verifyIncremental;
+        private VelocityKernel velocityKernel = VelocityKernel.scalar();
+        private Path checkpoint;
+        private int checkpointInterval = 10;
+        private boolean resume;
+        private int archiveSize;
+        private LocalSearch localSearch;
+        private int localSearchTopK;
+
+        private Builder() {}
+
+        public Builder swarmSize(int swarmSize) {
+            if (swarmSize < 1) throw new IllegalArgumentException("swarmSize must be >= 1: " + swarmSize);
+            this.swarmSize = swarmSize;
+            return this;
+        }
+
+        // Size the swarm from taskCount * vmCount at schedule time, see populationFor.
+        public Builder adaptiveSwarmSize() {
+            this.swarmSize = 0;
+            return this;
+        }
+
+        public Builder maxIterations(int maxIterations) {
+            this.stopping = StoppingCriteria.maxIterations(maxIterations);
+            return this;
+        }
+
+        public Builder stopping(StoppingCriteria stopping) {
+            this.stopping = stopping;
+            return this;
+        }
+
+        public Builder inertia(double w) {
+            this.inertia = Inertia.CONSTANT;
+            this.inertiaStart = this.inertiaEnd = w;
+            return this;
+        }
+
+        // Shi & Eberhart: w falls linearly from `start` to `end` over the iteration cap, trading
+        // early exploration for late exploitation. 0.9 -> 0.4 is the usual choice.
+        public Builder linearDecreasingInertia(double start, double end) {
+            this.inertia = Inertia.LINEAR_DECREASING;
+            this.inertiaStart = start;
+            this.inertiaEnd = end;
+            return this;
+        }
+
+        // Clerc & Kennedy constriction; needs c1 + c2 > 4 (2.05 + 2.05 is the usual choice).
+        public Builder constriction() {
+            this.inertia = Inertia.CONSTRICTION;
+            return this;
+        }
+
+        public Builder acceleration(double c1, double c2) {
+            this.c1Start = this.c1End = c1;
+            this.c2Start = this.c2End = c2;
+            return this;
+        }
+
+        // Ratnaweera et al. time-varying acceleration: the cognitive weight c1 moves from c1Start to
+        // c1End while the social weight c2 moves from c2Start to c2End, e.g. 2.5 -> 0.5 and 0.5 -> 2.5.
+        public Builder timeVaryingAcceleration(double c1Start, double c1End, double c2Start, double c2End) {
+            this.c1Start = c1Start;
+            this.c1End = c1End;
+            this.c2Start = c2Start;
+            this.c2End = c2End;
+            return this;
+        }
+
+        public Builder seed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        public Builder executor(ExecutorService executor, int parallelism) {
+            if (parallelism < 1) throw new IllegalArgumentException("parallelism must be >= 1: " + parallelism);
+            this.executor = executor;
+            this.parallelism = parallelism;
+            return this;
+        }
+
+        public Builder executor(ForkJoinPool pool) {
+            return executor(pool, pool.getParallelism());
+        }
+
+        public Builder fitness(FitnessEngine.Factory fitness) {
+            this.fitness = fitness;
+            return this;
+        }
+
+        public Builder progress(ProgressMonitor progress) {
+            this.progress = progress;
+            return this;
+        }
+
+        // In island mode the merged curve is only known at the end, so it is delivered then.
+        public Builder fitnessListener(FitnessListener fitnessListener) {
+            this.fitnessListener = fitnessListener;
+            return this;
+        }
+
+        public Builder islands(int islands, int migrationInterval) {
+            if (islands < 1) throw new IllegalArgumentException("islands must be >= 1: " + islands);
+            if (migrationInterval < 1) throw new IllegalArgumentException("migrationInterval must be >= 1: " + migrationInterval);
+            this.islands = islands;
+            this.migrationInterval = migrationInterval;
+            return this;
+        }
+
+        // Test mode: every incremental fitness update is checked against a full recomputation.
+        public Builder verifyIncremental(boolean verifyIncremental) {
+            this.verifyIncremental = verifyIncremental;
+            return this;
+        }
+
+        // VelocityKernel.vectorized() opts into the Vector API path when the module is available.
+        public Builder velocityKernel(VelocityKernel velocityKernel) {
+            this.velocityKernel = velocityKernel;
+            return this;
+        }
+
+        // Saves the whole swarm to `file` every `interval` iterations; the file is deleted once the
+        // run finishes. Single-swarm mode only.
+        public Builder checkpoint(Path file, int interval) {
+            if (interval < 1) throw new IllegalArgumentException("interval must be >= 1: " + interval);
+            this.checkpoint = file;
+            this.checkpointInterval = interval;
+            return this;
+        }
+
+        // Continue from the checkpoint file when one exists instead of starting over. The
+        // checkpoint must come from the same graph, VM count, swarm size and seed.
+        public Builder resume(boolean resume) {
+            this.resume = resume;
+            return this;
+        }
+
+        // MOPSO mode: particles also track makespan, energy and 1 - QoS, the non-dominated positions
+        // go into a Pareto archive of at most `archiveSize` members, and each particle follows a
+        // leader drawn from the archive instead of gBest. PSOScheduler.getParetoFront() returns the
+        // archive; schedule() still returns the best combined fitness. Single-swarm mode only.
+        public Builder multiObjective(int archiveSize) {
+            if (archiveSize < 1) throw new IllegalArgumentException("archiveSize must be >= 1: " + archiveSize);
+            this.archiveSize = archiveSize;
+            return this;
+        }
+
+        // Memetic mode: after every evaluation the `topK` fittest particles are refined in place by
+        // `search`, before the gBest reduction; topK = 1 refines only the gBest candidate. The
+        // refinement's evaluations count towards the evaluation budget, and the budget check expects
+        // each iteration to spend as much as the previous one did. Local search minimises the
+        // combined fitness, not the Pareto objectives, so the multi-objective mode rejects it.
+        public Builder localSearch(LocalSearch search, int topK) {
+            if (topK < 1) throw new IllegalArgumentException("topK must be >= 1: " + topK);
+            this.localSearch = search;
+            this.localSearchTopK = topK;
+            return this;
+        }
+
+        public PSOConfig build() {
+            if (inertia == Inertia.CONSTRICTION && Math.min(c1Start + c2Start, c1End + c2End) <= 4.0) {
+                throw new IllegalArgumentException("Constriction needs c1 + c2 > 4 throughout the run");
+            }
+            if (swarmSize > 0 && islands > swarmSize) {
+                throw new IllegalArgumentException("islands (" + islands + ") exceed swarmSize (" + swarmSize + ")");
+            }
+            if (checkpoint != null && islands > 1) {
+                throw new IllegalArgumentException("Checkpoints need the single-swarm mode, not " + islands + " islands");
+            }
+            if (archiveSize > 0 && (islands > 1 || checkpoint != null)) {
+                throw new IllegalArgumentException("The multi-objective mode supports neither islands nor checkpoints");
+            }
+            if (archiveSize > 0 && localSearch != null) {
+                throw new IllegalArgumentException("The multi-objective mode does not support local search");
+            }
+            return new PSOConfig(this);
+        }
+    }
+}
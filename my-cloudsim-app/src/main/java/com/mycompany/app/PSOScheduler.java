@@ -1,193 +1,755 @@
 package com.mycompany.app;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.IntConsumer;
+import java.util.function.IntToDoubleFunction;
 
 public class PSOScheduler {
 
+    static final Metrics.Timer ITERATION = Metrics.timer("pso_iteration",
+            "One PSO iteration: evaluation, gBest reduction and particle moves", true);
+    static final Metrics.Timer EVALUATE = Metrics.timer("pso_evaluate", "Fitness evaluation phase of a PSO iteration");
+    static final Metrics.Timer LOCAL_SEARCH = Metrics.timer("pso_local_search",
+            "Memetic refinement of the fittest particles in a PSO iteration");
+    static final Metrics.Timer MOVE = Metrics.timer("pso_move",
+            "Move phase of a PSO iteration: velocity updates and new per-VM orders of all particles");
+    static final Metrics.Counter EVALUATIONS = Metrics.counter("pso_fitness_evaluations",
+            "Fitness evaluations in PSO iterations");
+
+    // All particle state lives in flat primitive buffers that are allocated once in initSwarm and
+    // overwritten in place afterwards. The per-VM execution order is stored CSR-style: the tasks of
+    // vm v are orderTasks[orderStart[v] .. orderStart[v + 1]) in execution order.
     private static class Particle {
-        int[] vmMapping;
-        Map<Integer, List<Integer>> vmOrderMap;
-        double[][] velocity;
-        int[] pBestMapping;
-        Map<Integer, List<Integer>> pBestOrderMap;
+        final int[] vmMapping;
+        final int[] orderStart;
+        final int[] orderTasks;
+        final double[] velocity;          // taskCount * vmCount, row t at t * vmCount
+        final int[] pBestMapping;
+        final int[] pBestOrderStart;
+        final int[] pBestOrderTasks;
         double pBestFit;
+        double fit;
+
+        final int[] changed;              // tasks whose VM changed in the last move
+        final int[] changedFrom;          // ... and the VM they left
+        int changedCount;
+        final FitnessEngine.Evaluator eval;
+
+        final int[] permutation;          // shuffle buffer for the order generation
+        final int[] cursor;               // per-VM fill position for the order generation
+        final double[] weights;           // softmax scratch
+        final SplitMixRandom rng;
+
+        double[] obj, pBestObj;           // multi-objective mode only: costs of the position and of pBest
+        int[] leader;                     // ... and the archive member followed in this move
+        LocalSearch.Position position;    // memetic mode only: view of this particle's arrays
+
+        Particle(int taskCount, int vmCount, SplitMixRandom rng, FitnessEngine.Evaluator eval) {
+            this.rng = rng;
+            this.eval = eval;
+            this.changed = new int[taskCount];
+            this.changedFrom = new int[taskCount];
+            this.vmMapping = new int[taskCount];
+            this.orderStart = new int[vmCount + 1];
+            this.orderTasks = new int[taskCount];
+            this.velocity = new double[taskCount * vmCount];
+            this.pBestMapping = new int[taskCount];
+            this.pBestOrderStart = new int[vmCount + 1];
+            this.pBestOrderTasks = new int[taskCount];
+            this.permutation = new int[taskCount];
+            this.cursor = new int[vmCount];
+            this.weights = new double[vmCount];
+            for (int t = 0; t < taskCount; t++) permutation[t] = t;
+        }
+
+        void savePersonalBest() {
+            pBestFit = fit;
+            System.arraycopy(vmMapping, 0, pBestMapping, 0, vmMapping.length);
+            System.arraycopy(orderStart, 0, pBestOrderStart, 0, orderStart.length);
+            System.arraycopy(orderTasks, 0, pBestOrderTasks, 0, orderTasks.length);
+            if (obj != null) System.arraycopy(obj, 0, pBestObj, 0, obj.length);
+        }
+    }
+
+    // `resumedAt` is the iteration a resumed run picked up from its checkpoint, 0 for a fresh run.
+    public record RunStats(int iterations, int maxIterations, StoppingCriteria.Reason stopReason,
+                           long evaluations, long elapsedMillis, double bestFitness, int resumedAt) {
+
+        // Share of the iteration cap that early termination skipped.
+        public double iterationsSaved() {
+            return 1.0 - (double) iterations / maxIterations;
+        }
+
+        @Override
+        public String toString() {
+            String s = String.format("Iterations: %d/%d (%s) | Evaluations: %d | Time: %d ms | Saved: %.0f%%",
+                    iterations, maxIterations, stopReason, evaluations, elapsedMillis, iterationsSaved() * 100);
+            return resumedAt > 0 ? s + " | Resumed at iteration " + resumedAt : s;
+        }
+    }
+
+    // One member of the Pareto front of a multi-objective run.
+    public record ParetoPoint(double makespan, double energy, double qos, DagRun run) {}
+
+    private record Outcome(Swarm best, int iterations, StoppingCriteria.Reason stopReason, long evaluations) {}
+
+    // Latest best position an island offers to its ring neighbour. Immutable once published.
+    private record Migrant(int[] mapping, int[] orderStart, int[] orderTasks, double fitness) {}
+
+    // One sub-swarm with its own gBest and fitness history. The default mode runs a single swarm;
+    // the island model runs several of them concurrently, one thread each.
+    private class Swarm {
+        final Particle[] particles;
+        final boolean parallel;
+        final int[] gBestMapping = new int[taskCount];
+        final int[] gBestOrderStart = new int[vmCount + 1];
+        final int[] gBestOrderTasks = new int[taskCount];
+        double gBestFitness = Double.MAX_VALUE;
+        boolean hasGBest;
+        final List<Double> history = new ArrayList<>();
+        long evaluations;
+        int iterationEvaluations;         // spent by the last iteration, refinement included
+        StoppingCriteria.Reason stopReason;
+        double w, c1, c2, chi;            // coefficients of the current iteration
+        boolean fullEvaluation;           // next evaluation starts from scratch, see writeCheckpoint
+        final ParetoArchive archive;      // null unless multi-objective
+
+        private final IntConsumer evaluate;
+        private final IntConsumer moveFromGBest;
+        private final IntConsumer moveWithoutGBest;
+        private final IntConsumer moveFromLeader;
+        private final IntConsumer refine;
+        private final Integer[] byFitness;
+
+        Swarm(int size, SplitMixRandom root, boolean parallel) {
+            this(initSwarm(size, root, parallel), parallel);
+            this.evaluations = size;
+        }
 
-        Particle(int[] vmMapping, Map<Integer, List<Integer>> vmOrderMap, double[][] velocity, double fit) {
-            this.vmMapping = vmMapping;
-            this.vmOrderMap = deepCopyMap(vmOrderMap);
-            this.velocity = velocity;
-            this.pBestMapping = vmMapping.clone();
-            this.pBestOrderMap = deepCopyMap(vmOrderMap);
-            this.pBestFit = fit;
+        Swarm(Particle[] particles, boolean parallel) {
+            this.parallel = parallel;
+            this.particles = particles;
+            this.iterationEvaluations = particles.length;
+            this.archive = config.archiveSize > 0
+                    ? new ParetoArchive(FitnessEngine.OBJECTIVES, config.archiveSize, taskCount, vmCount) : null;
+            this.evaluate = i -> {
+                Particle p = particles[i];
+                p.fit = fullEvaluation
+                        ? p.eval.evaluate(p.vmMapping, p.orderStart, p.orderTasks)
+                        : p.eval.update(p.vmMapping, p.orderStart, p.orderTasks, p.changed, p.changedFrom, p.changedCount);
+                p.changedCount = 0;
+                if (config.verifyIncremental) verify(p);
+                updatePersonalBest(p);
+            };
+            this.moveFromGBest = i -> move(particles[i], gBestMapping, w, c1, c2, chi);
+            this.moveWithoutGBest = i -> move(particles[i], null, w, c1, c2, chi);
+            this.moveFromLeader = i -> {
+                Particle p = particles[i];
+                archive.copyMapping(archive.selectLeader(p.rng), p.leader);
+                move(p, p.leader, w, c1, c2, chi);
+            };
+            this.byFitness = config.localSearch == null ? null : new Integer[particles.length];
+            this.refine = k -> {
+                Particle p = particles[byFitness[k]];
+                p.position.reset(p.fit);
+                config.localSearch.improve(p.position);
+                p.fit = p.position.fitness();
+                if (config.verifyIncremental) verify(p);
+                updatePersonalBest(p);
+            };
         }
 
-        private Map<Integer, List<Integer>> deepCopyMap(Map<Integer, List<Integer>> original) {
-            Map<Integer, List<Integer>> copy = new HashMap<>();
-            for (var entry : original.entrySet()) {
-                copy.put(entry.getKey(), new ArrayList<>(entry.getValue()));
+        private void updatePersonalBest(Particle p) {
+            if (archive == null) {
+                if (p.fit < p.pBestFit) p.savePersonalBest();
+            } else {
+                p.eval.objectives(p.obj);
+                if (replacesPersonalBest(p)) p.savePersonalBest();
             }
-            return copy;
+        }
+
+        // Refines the topK fittest particles (ties to the lower index) and returns the evaluations spent.
+        private long refineFittest() {
+            for (int i = 0; i < byFitness.length; i++) byFitness[i] = i;
+            Arrays.sort(byFitness, Comparator.comparingDouble(i -> particles[i].fit));
+            int k = Math.min(config.localSearchTopK, particles.length);
+            try (Metrics.Span span = LOCAL_SEARCH.start()) {
+                forEachParticle(k, refine, parallel);
+            }
+            long spent = 0;
+            for (int i = 0; i < k; i++) spent += particles[byFitness[i]].position.evaluations();
+            return spent;
+        }
+
+        // One PSO iteration; returns whether gBest improved.
+        boolean iterate() {
+            try (Metrics.Span span = ITERATION.start()) {
+                return step();
+            }
+        }
+
+        private boolean step() {
+            try (Metrics.Span span = EVALUATE.start()) {
+                forEachParticle(particles.length, evaluate, parallel);
+            }
+            evaluations += particles.length;
+            EVALUATIONS.add(particles.length);
+            fullEvaluation = false;
+            iterationEvaluations = particles.length;
+            if (config.localSearch != null) {
+                long spent = refineFittest();
+                evaluations += spent;
+                EVALUATIONS.add(spent);
+                iterationEvaluations += (int) spent;
+            }
+
+            // Reduce in particle order so ties resolve identically for any thread count.
+            boolean improved = false;
+            for (Particle p : particles) {
+                if (p.fit < gBestFitness) {
+                    improved = true;
+                    gBestFitness = p.fit;
+                    System.arraycopy(p.vmMapping, 0, gBestMapping, 0, taskCount);
+                    System.arraycopy(p.orderStart, 0, gBestOrderStart, 0, vmCount + 1);
+                    System.arraycopy(p.orderTasks, 0, gBestOrderTasks, 0, taskCount);
+                    hasGBest = true;
+                }
+            }
+
+            // The archive is only written here, so the parallel moves below can read it freely.
+            if (archive != null) {
+                for (Particle p : particles) archive.offer(p.obj, p.vmMapping, p.orderStart, p.orderTasks);
+                archive.updateCrowding();
+            }
+
+            history.add(gBestFitness);
+
+            int cap = stopping.getMaxIterations();
+            double progress = cap > 1 ? Math.min(1.0, (history.size() - 1) / (double) (cap - 1)) : 0;
+            w = config.inertiaAt(progress);
+            c1 = config.c1At(progress);
+            c2 = config.c2At(progress);
+            chi = config.constrictionAt(progress);
+
+            try (Metrics.Span span = MOVE.start()) {
+                forEachParticle(particles.length,
+                        archive != null ? moveFromLeader : hasGBest ? moveFromGBest : moveWithoutGBest, parallel);
+            }
+            return improved;
+        }
+
+        Migrant emigrant() {
+            return new Migrant(gBestMapping.clone(), gBestOrderStart.clone(), gBestOrderTasks.clone(), gBestFitness);
+        }
+
+        // The migrant replaces the worst particle's position and personal best; velocity is kept.
+        void immigrate(Migrant m) {
+            int slot = immigrationSlot(particles.length, i -> particles[i].fit, m.fitness());
+            if (slot < 0) return;
+
+            Particle worst = particles[slot];
+            System.arraycopy(m.mapping(), 0, worst.vmMapping, 0, taskCount);
+            System.arraycopy(m.orderStart(), 0, worst.orderStart, 0, vmCount + 1);
+            System.arraycopy(m.orderTasks(), 0, worst.orderTasks, 0, taskCount);
+            worst.changedCount = 0;
+            worst.fit = worst.eval.evaluate(worst.vmMapping, worst.orderStart, worst.orderTasks);
+            worst.savePersonalBest();
+            evaluations++;
+            EVALUATIONS.increment();
+            iterationEvaluations++;
         }
     }
 
     private final List<Double> fitnessHistory = new ArrayList<>();
+    private final List<List<Double>> islandHistories = new ArrayList<>();
+    private List<ParetoPoint> paretoFront = List.of();
+
+    private final PSOConfig config;
+    private final StoppingCriteria stopping;
+    private ProgressMonitor.Session progress;     // of the current schedule() call
+    private RunStats runStats;
+    private long resumedNanos;            // run time before the checkpoint this run resumed from
+    private int resumedAt;                // ... and the iteration it was written at
+
+    private int swarmSize, taskCount, vmCount;
+    private TaskGraph graph;
+    private FitnessEngine fitness;
+
+    public PSOScheduler() {
+        this(PSOConfig.defaults());
+    }
+
+    public PSOScheduler(long seed) {
+        this(PSOConfig.builder().seed(seed).build());
+    }
 
-    private final int swarmSize = 200;
-    private final int maxIter = 100;
-    private final double inertia = 0.9;
-    private final double c1 = 1.4;
-    private final double c2 = 1.1;
+    public PSOScheduler(long seed, ForkJoinPool pool) {
+        this(PSOConfig.builder().seed(seed).executor(pool).build());
+    }
 
-    private int taskCount, vmCount;
-    private List<App.TaskNode> originalDag;
+    // Particles are split into `parallelism` chunks that run on `executor`. Every particle owns
+    // its random stream, so the outcome for a given seed does not depend on the thread count.
+    public PSOScheduler(long seed, ExecutorService executor, int parallelism) {
+        this(PSOConfig.builder().seed(seed).executor(executor, parallelism).build());
+    }
+
+    public PSOScheduler(PSOConfig config) {
+        this.config = config;
+        this.stopping = config.stopping;
+    }
 
+    // Returns a fresh copy of the DAG carrying the best mapping and order.
     public List<App.TaskNode> schedule(List<App.TaskNode> dag, int vmCount) {
-        this.originalDag = dag;
-        this.taskCount = dag.size();
+        return schedule(TaskGraph.of(dag), vmCount).toNodes();
+    }
+
+    public DagRun schedule(TaskGraph graph, int vmCount) {
+        this.graph = graph;
+        this.taskCount = graph.taskCount;
         this.vmCount = vmCount;
+        this.swarmSize = config.swarmSizeFor(taskCount, vmCount);
+        this.fitness = config.fitness.create(graph, vmCount);
+        if (config.islands > swarmSize) {
+            throw new IllegalArgumentException("islands (" + config.islands + ") exceed swarm size (" + swarmSize + ")");
+        }
 
-        List<Particle> swarm = initSwarm();
+        // Progress only reports makespan and QoS, so its simulations skip the energy bookkeeping.
+        SimulationEnvironment env = SimulationEnvironment.of(vmCount, false);
+        progress = config.progress.begin((mapping, orderStart, orderTasks) ->
+                SingleSimulationRunner.runSimulation(toRun(mapping, orderStart, orderTasks), env, config.seed));
+
+        long start = System.nanoTime();
+        resumedNanos = 0;
+        resumedAt = 0;
+        Outcome outcome;
+        try {
+            outcome = config.islands == 1 ? runSingle(start) : runIslands(start);
+        } finally {
+            progress.end();
+        }
 
-        int[] gBestMapping = null;
-        Map<Integer, List<Integer>> gBestOrderMap = null;
-        double gBestFitness = Double.MAX_VALUE;
+        Swarm best = outcome.best();
+        runStats = new RunStats(outcome.iterations(), stopping.getMaxIterations(), outcome.stopReason(),
+                outcome.evaluations(), (System.nanoTime() - start + resumedNanos) / 1_000_000, best.gBestFitness,
+                resumedAt);
+        if (best.archive != null) paretoFront = front(best.archive);
 
-        for (int iter = 0; iter < maxIter; iter++) {
-            for (Particle p : swarm) {
-                double fit = fitness(p.vmMapping, p.vmOrderMap);
-                if (fit < p.pBestFit) {
-                    p.pBestFit = fit;
-                    p.pBestMapping = p.vmMapping.clone();
-                    p.pBestOrderMap = p.deepCopyMap(p.vmOrderMap);
-                }
-                if (fit < gBestFitness) {
-                    gBestFitness = fit;
-                    gBestMapping = p.vmMapping.clone();
-                    gBestOrderMap = p.deepCopyMap(p.vmOrderMap);
-                }
+        return toRun(best.gBestMapping, best.gBestOrderStart, best.gBestOrderTasks);
+    }
+
+    public List<Double> getFitnessHistory() {
+        return fitnessHistory;
+    }
+
+    // Iterations actually run, why the run stopped and how many fitness evaluations it used.
+    public RunStats getRunStats() {
+        return runStats;
+    }
+
+    // One history per island in island mode; getFitnessHistory() is then the best across islands.
+    public List<List<Double>> getIslandHistories() {
+        return islandHistories;
+    }
+
+    // Multi-objective mode: the final archive by increasing makespan; empty otherwise.
+    public List<ParetoPoint> getParetoFront() {
+        return paretoFront;
+    }
+
+    private Outcome runSingle(long start) {
+        Path checkpoint = config.checkpoint;
+        Swarm swarm = null;
+        if (checkpoint != null && config.resume && Files.exists(checkpoint)) {
+            swarm = restore(checkpoint);
+            resumedAt = swarm.history.size();
+            // The listener hears the restored curve again: a sink may have lost the points it had
+            // not flushed when the earlier run died.
+            for (double f : swarm.history) {
+                fitnessHistory.add(f);
+                config.fitnessListener.onIteration(fitnessHistory.size() - 1, f);
             }
+        }
+        if (swarm == null) swarm = new Swarm(swarmSize, new SplitMixRandom(config.seed), config.parallelism > 1);
+        long origin = start - resumedNanos;
+
+        StoppingCriteria.Reason reason;
+        while ((reason = stopping.check(swarm.history, System.nanoTime() - origin, swarm.evaluations, swarm.iterationEvaluations)) == null) {
+            boolean improved = swarm.iterate();
+            fitnessHistory.add(swarm.gBestFitness);
+            config.fitnessListener.onIteration(fitnessHistory.size() - 1, swarm.gBestFitness);
+            progress.onIteration(swarm.history.size() - 1, improved, swarm.gBestMapping, swarm.gBestOrderStart, swarm.gBestOrderTasks);
+            if (checkpoint != null && swarm.history.size() % config.checkpointInterval == 0) {
+                writeCheckpoint(checkpoint, swarm, System.nanoTime() - origin);
+            }
+        }
 
-            fitnessHistory.add(gBestFitness);
+        // A finished run is reported by its caller; its checkpoint would only restart it.
+        if (checkpoint != null) {
+            try {
+                Files.deleteIfExists(checkpoint);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot delete checkpoint " + checkpoint, e);
+            }
+        }
+        return new Outcome(swarm, swarm.history.size(), reason, swarm.evaluations);
+    }
 
-            for (Particle p : swarm) {
-                for (int t = 0; t < taskCount; t++) {
-                    for (int v = 0; v < vmCount; v++) {
-                        double r1 = Math.random(), r2 = Math.random();
-                        double cog = c1 * r1 * ((p.pBestMapping[t] == v) ? 1 : 0);
-                        double soc = c2 * r2 * ((gBestMapping != null && gBestMapping[t] == v) ? 1 : 0);
-                        p.velocity[t][v] = inertia * p.velocity[t][v] + cog + soc;
-                    }
+    private static final int CHECKPOINT_MAGIC = 0x50534F43;   // "PSOC"
+    private static final int CHECKPOINT_VERSION = 1;
+
+    // Everything the next iteration reads: positions, velocities, personal and global bests, the
+    // shuffle buffers and RNG state of every particle, plus the history. Evaluators keep incremental
+    // state that is not saved; instead the first evaluation after a checkpoint is a full one, in the
+    // run that wrote it as well as in the run that resumes it, so both continue bit for bit alike.
+    private void writeCheckpoint(Path file, Swarm swarm, long elapsedNanos) {
+        try (CheckpointFile.Writer out = new CheckpointFile.Writer(file, CHECKPOINT_MAGIC, CHECKPOINT_VERSION)) {
+            out.putInt(taskCount);
+            out.putInt(vmCount);
+            out.putInt(swarm.particles.length);
+            out.putLong(config.seed);
+            out.putLong(fingerprint(graph));
+            out.putLong(elapsedNanos);
+
+            out.putLong(swarm.evaluations);
+            out.putDouble(swarm.gBestFitness);
+            out.putInt(swarm.hasGBest ? 1 : 0);
+            out.putInts(swarm.gBestMapping);
+            out.putInts(swarm.gBestOrderStart);
+            out.putInts(swarm.gBestOrderTasks);
+            double[] history = new double[swarm.history.size()];
+            for (int i = 0; i < history.length; i++) history[i] = swarm.history.get(i);
+            out.putDoubles(history);
+
+            for (Particle p : swarm.particles) {
+                out.putLong(p.rng.seed());
+                out.putLong(p.rng.gamma());
+                out.putDouble(p.fit);
+                out.putDouble(p.pBestFit);
+                out.putInts(p.vmMapping);
+                out.putInts(p.orderStart);
+                out.putInts(p.orderTasks);
+                out.putDoubles(p.velocity);
+                out.putInts(p.pBestMapping);
+                out.putInts(p.pBestOrderStart);
+                out.putInts(p.pBestOrderTasks);
+                out.putInts(p.permutation);
+            }
+            out.commit();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write checkpoint " + file, e);
+        }
+        swarm.fullEvaluation = true;
+    }
+
+    private Swarm restore(Path file) {
+        try (CheckpointFile.Reader in = new CheckpointFile.Reader(file, CHECKPOINT_MAGIC, CHECKPOINT_VERSION)) {
+            int tasks = in.getInt(), vms = in.getInt(), size = in.getInt();
+            long seed = in.getLong(), graphPrint = in.getLong();
+            if (tasks != taskCount || vms != vmCount || size != swarmSize || seed != config.seed || graphPrint != fingerprint(graph)) {
+                throw new IllegalStateException("Checkpoint " + file + " was written for another problem or configuration");
+            }
+            resumedNanos = in.getLong();
+
+            Particle[] particles = new Particle[size];
+            long evaluations = in.getLong();
+            double gBestFitness = in.getDouble();
+            boolean hasGBest = in.getInt() != 0;
+            int[] gBestMapping = in.getInts(), gBestOrderStart = in.getInts(), gBestOrderTasks = in.getInts();
+            double[] history = in.getDoubles();
+
+            for (int i = 0; i < size; i++) {
+                long rngSeed = in.getLong(), rngGamma = in.getLong();
+                Particle p = newParticle(new SplitMixRandom(rngSeed, rngGamma));
+                p.fit = in.getDouble();
+                p.pBestFit = in.getDouble();
+                in.getInts(p.vmMapping);
+                in.getInts(p.orderStart);
+                in.getInts(p.orderTasks);
+                in.getDoubles(p.velocity);
+                in.getInts(p.pBestMapping);
+                in.getInts(p.pBestOrderStart);
+                in.getInts(p.pBestOrderTasks);
+                in.getInts(p.permutation);
+                particles[i] = p;
+            }
+
+            Swarm swarm = new Swarm(particles, config.parallelism > 1);
+            swarm.evaluations = evaluations;
+            swarm.gBestFitness = gBestFitness;
+            swarm.hasGBest = hasGBest;
+            System.arraycopy(gBestMapping, 0, swarm.gBestMapping, 0, taskCount);
+            System.arraycopy(gBestOrderStart, 0, swarm.gBestOrderStart, 0, vmCount + 1);
+            System.arraycopy(gBestOrderTasks, 0, swarm.gBestOrderTasks, 0, taskCount);
+            for (double f : history) swarm.history.add(f);
+            swarm.fullEvaluation = true;
+            return swarm;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot resume from checkpoint " + file, e);
+        }
+    }
+
+    // Identifies the problem a checkpoint belongs to: lengths, deadlines and edges.
+    private static long fingerprint(TaskGraph g) {
+        long h = Arrays.hashCode(g.length);
+        h = h * 0x9E3779B97F4A7C15L + Arrays.hashCode(g.deadline);
+        h = h * 0x9E3779B97F4A7C15L + Arrays.hashCode(g.parentStart);
+        return h * 0x9E3779B97F4A7C15L + Arrays.hashCode(g.parents);
+    }
 
-                    double[] expVals = Arrays.stream(p.velocity[t]).map(Math::exp).toArray();
-                    double sum = Arrays.stream(expVals).sum();
-                    double rnd = Math.random(), cum = 0;
-                    for (int v = 0; v < vmCount; v++) {
-                        cum += expVals[v] / sum;
-                        if (rnd <= cum) {
-                            p.vmMapping[t] = v;
-                            break;
+    // Island model: the swarm is split into sub-swarms that run on their own threads and pass their
+    // best position to the next island in a ring every `migrationInterval` iterations. Islands meet
+    // at a barrier for every migration, so each one receives its neighbour's migrant of the same
+    // round, or none once the neighbour has stopped; with iteration caps and history-based criteria
+    // a seeded island run is repeatable. A time budget or the shared evaluation budget stops the
+    // islands at points that depend on thread timing.
+    private Outcome runIslands(long start) {
+        int islands = config.islands, migrationInterval = config.migrationInterval;
+        SplitMixRandom root = new SplitMixRandom(config.seed);
+        Swarm[] swarms = new Swarm[islands];
+        for (int k = 0; k < islands; k++) {
+            int size = (k + 1) * swarmSize / islands - k * swarmSize / islands;
+            swarms[k] = new Swarm(size, root.split(), false);
+        }
+
+        // Budgets are shared by all islands; history-based criteria apply to each island's own curve.
+        // Islands read the shared evaluation count without coordinating, so the evaluation budget can
+        // be overshot by at most one iteration per island.
+        AtomicLong evaluations = new AtomicLong();
+        for (Swarm s : swarms) evaluations.addAndGet(s.evaluations);
+
+        // Slot 2k + r%2 holds the migrant of round r addressed to island k. A round's barrier only
+        // opens once every island still running has published, and an island cannot publish round
+        // r + 2 before its receiver has taken round r, so two slots per island suffice. A stopped
+        // island leaves the barrier for good.
+        AtomicReferenceArray<Migrant> inbox = new AtomicReferenceArray<>(2 * islands);
+        Phaser rounds = new Phaser(islands);
+        List<Callable<Void>> tasks = new ArrayList<>(islands);
+        for (int k = 0; k < islands; k++) {
+            int island = k;
+            Swarm swarm = swarms[k];
+            tasks.add(() -> {
+                try {
+                    while ((swarm.stopReason = stopping.check(swarm.history, System.nanoTime() - start, evaluations.get(), swarm.iterationEvaluations)) == null) {
+                        int iter = swarm.history.size();
+                        boolean improved = swarm.iterate();
+                        evaluations.addAndGet(swarm.iterationEvaluations);
+                        if (island == 0) {
+                            progress.onIteration(iter, improved, swarm.gBestMapping, swarm.gBestOrderStart, swarm.gBestOrderTasks);
+                        }
+                        if ((iter + 1) % migrationInterval == 0) {
+                            int parity = (iter + 1) / migrationInterval % 2;
+                            inbox.set(2 * ((island + 1) % islands) + parity, swarm.emigrant());
+                            rounds.arriveAndAwaitAdvance();
+                            Migrant m = inbox.getAndSet(2 * island + parity, null);
+                            if (m != null) {
+                                long before = swarm.evaluations;
+                                swarm.immigrate(m);
+                                evaluations.addAndGet(swarm.evaluations - before);
+                            }
                         }
                     }
+                    return null;
+                } finally {
+                    rounds.arriveAndDeregister();
                 }
+            });
+        }
 
-                p.vmOrderMap = generateVmOrderMap(p.vmMapping);
-            }
+        ExecutorService pool = Executors.newFixedThreadPool(islands, r -> {
+            Thread t = new Thread(r, "pso-island");
+            t.setDaemon(true);
+            return t;
+        });
+        try {
+            invokeAll(pool, tasks);
+        } finally {
+            pool.shutdownNow();
+        }
+
+        // The run ends when the last island stops; islands that stopped early keep their final value.
+        Swarm best = swarms[0], last = swarms[0];
+        long total = 0;
+        for (Swarm s : swarms) {
+            islandHistories.add(s.history);
+            total += s.evaluations;
+            if (s.gBestFitness < best.gBestFitness) best = s;
+            if (s.history.size() > last.history.size()) last = s;
+        }
+        for (int iter = 0; iter < last.history.size(); iter++) {
+            double min = Double.MAX_VALUE;
+            for (Swarm s : swarms) min = Math.min(min, s.history.get(Math.min(iter, s.history.size() - 1)));
+            fitnessHistory.add(min);
+            config.fitnessListener.onIteration(iter, min);
+        }
+        return new Outcome(best, last.history.size(), last.stopReason, total);
+    }
+
+    // Index of the particle a migrant of fitness `migrant` replaces: the worst one, the lowest index
+    // on ties, or -1 when even the worst is at least as fit as the migrant.
+    static int immigrationSlot(int count, IntToDoubleFunction fitness, double migrant) {
+        int worst = 0;
+        for (int i = 1; i < count; i++) if (fitness.applyAsDouble(i) > fitness.applyAsDouble(worst)) worst = i;
+        return migrant < fitness.applyAsDouble(worst) ? worst : -1;
+    }
 
-            if (iter % 20 == 0 && gBestMapping != null) {
-                List<App.TaskNode> dagWithPos = applyToDag(gBestMapping, gBestOrderMap);
-                var res = SingleSimulationRunner.runSimulation(dagWithPos, vmCount);
-                System.out.printf("Iter %d → Makespan=%.2f | QoS=%.2f%%\n", iter, res.makespan(), res.qosScore() * 100);
+    private void verify(Particle p) {
+        double full = fitness.newEvaluator().evaluate(p.vmMapping, p.orderStart, p.orderTasks);
+        if (Math.abs(full - p.fit) > 1e-9 * Math.max(1, Math.abs(full))) {
+            throw new IllegalStateException("Incremental fitness " + p.fit + " != full recomputation " + full);
+        }
+    }
+
+    // MOPSO personal best: the new position replaces pBest when it dominates it, and on a coin flip
+    // when neither dominates the other.
+    private static boolean replacesPersonalBest(Particle p) {
+        if (ParetoArchive.dominates(p.obj, p.pBestObj)) return true;
+        if (ParetoArchive.dominates(p.pBestObj, p.obj)) return false;
+        return p.rng.nextBoolean();
+    }
+
+    private void move(Particle p, int[] gBestMapping, double w, double c1, double c2, double chi) {
+        SplitMixRandom rng = p.rng;
+        VelocityKernel kernel = config.velocityKernel;
+        for (int t = 0; t < taskCount; t++) {
+            double r1 = rng.nextDouble(), r2 = rng.nextDouble(), u = rng.nextDouble();
+            int gBestVm = gBestMapping == null ? -1 : gBestMapping[t];
+            int v = kernel.update(p.velocity, t * vmCount, vmCount, p.pBestMapping[t], gBestVm,
+                    w, c1, c2, chi, r1, r2, u, p.weights);
+            if (v >= 0 && p.vmMapping[t] != v) {
+                p.changed[p.changedCount] = t;
+                p.changedFrom[p.changedCount++] = p.vmMapping[t];
+                p.vmMapping[t] = v;
             }
         }
 
-        return applyToDag(gBestMapping, gBestOrderMap);
+        generateVmOrder(p);
     }
 
-    public List<Double> getFitnessHistory() {
-        return fitnessHistory;
+    private void forEachParticle(int count, IntConsumer body, boolean parallel) {
+        if (!parallel) {
+            for (int i = 0; i < count; i++) body.accept(i);
+            return;
+        }
+
+        int chunks = Math.min(config.parallelism, count);
+        List<Callable<Void>> tasks = new ArrayList<>(chunks);
+        for (int c = 0; c < chunks; c++) {
+            int from = c * count / chunks, to = (c + 1) * count / chunks;
+            tasks.add(() -> {
+                for (int i = from; i < to; i++) body.accept(i);
+                return null;
+            });
+        }
+
+        invokeAll(config.executor, tasks);
     }
 
-    private List<Particle> initSwarm() {
-        List<Particle> swarm = new ArrayList<>();
-        Random rnd = new Random();
+    private static void invokeAll(ExecutorService executor, List<Callable<Void>> tasks) {
+        try {
+            for (Future<Void> f : executor.invokeAll(tasks)) f.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("PSO interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("PSO worker failed", e.getCause());
+        }
+    }
+
+    private Particle newParticle(SplitMixRandom rng) {
+        Particle p = new Particle(taskCount, vmCount, rng, fitness.newEvaluator());
+        if (config.localSearch != null) {
+            p.position = new LocalSearch.Position(graph, vmCount, p.vmMapping, p.orderStart, p.orderTasks, p.eval);
+        }
+        return p;
+    }
+
+    private Particle[] initSwarm(int size, SplitMixRandom root, boolean parallel) {
+        SplitMixRandom[] streams = new SplitMixRandom[size];
+        for (int i = 0; i < size; i++) streams[i] = root.split();
 
-        for (int i = 0; i < swarmSize; i++) {
-            int[] mapping = new int[taskCount];
-            double[][] velocity = new double[taskCount][vmCount];
+        Particle[] swarm = new Particle[size];
+        forEachParticle(size, i -> {
+            SplitMixRandom rnd = streams[i];
+            Particle p = newParticle(rnd);
             for (int t = 0; t < taskCount; t++) {
-                mapping[t] = rnd.nextInt(vmCount);
+                p.vmMapping[t] = rnd.nextInt(vmCount);
                 for (int v = 0; v < vmCount; v++) {
-                    velocity[t][v] = rnd.nextDouble(-1, 1);
+                    p.velocity[t * vmCount + v] = rnd.nextDouble(-1, 1);
                 }
             }
 
-            var orderMap = generateVmOrderMap(mapping);
-            double fit = fitness(mapping, orderMap);
+            generateVmOrder(p);
+            p.fit = p.eval.evaluate(p.vmMapping, p.orderStart, p.orderTasks);
+            if (config.archiveSize > 0) {
+                p.obj = new double[FitnessEngine.OBJECTIVES];
+                p.pBestObj = new double[FitnessEngine.OBJECTIVES];
+                p.leader = new int[taskCount];
+                p.eval.objectives(p.obj);
+            }
+            p.savePersonalBest();
 
-            swarm.add(new Particle(mapping, orderMap, velocity, fit));
-        }
+            swarm[i] = p;
+        }, parallel);
         return swarm;
     }
 
-    private Map<Integer, List<Integer>> generateVmOrderMap(int[] mapping) {
-        Map<Integer, List<Integer>> map = new HashMap<>();
-        for (int vm = 0; vm < vmCount; vm++) map.put(vm, new ArrayList<>());
-        Random rnd = new Random();
-        List<Integer> taskIds = new ArrayList<>();
-        for (int i = 0; i < taskCount; i++) taskIds.add(i);
-        Collections.shuffle(taskIds);
-        for (int taskId : taskIds) {
-            int vm = mapping[taskId];
-            map.get(vm).add(taskId);
+    // Random execution order inside every VM: shuffle the particle's permutation buffer in place,
+    // then counting-sort it by VM so each VM's slice keeps the shuffled relative order.
+    private void generateVmOrder(Particle p) {
+        int[] perm = p.permutation;
+        for (int i = taskCount - 1; i > 0; i--) {
+            int j = p.rng.nextInt(i + 1);
+            int tmp = perm[i];
+            perm[i] = perm[j];
+            perm[j] = tmp;
         }
-        return map;
-    }
 
-    private double fitness(int[] mapping, Map<Integer, List<Integer>> orderMap) {
-        double[] vmWork = new double[vmCount];
+        groupByVm(p.vmMapping, perm, vmCount, p.orderStart, p.orderTasks, p.cursor);
+    }
 
-        for (int vm = 0; vm < vmCount; vm++) {
-            for (int taskId : orderMap.get(vm)) {
-                long len = originalDag.get(taskId).cloudlet.getLength();
-                vmWork[vm] += len;
-            }
-        }
+    // Stable counting sort of `perm` by VM into the CSR order arrays; `cursor` is vmCount scratch.
+    static void groupByVm(int[] mapping, int[] perm, int vmCount, int[] orderStart, int[] orderTasks, int[] cursor) {
+        Arrays.fill(orderStart, 0);
+        for (int vm : mapping) orderStart[vm + 1]++;
+        for (int vm = 0; vm < vmCount; vm++) orderStart[vm + 1] += orderStart[vm];
 
-        double cap = 2000.0;
-        double makespan = 0;
-        // double energy = 0;
-        for (int vm = 0; vm < vmCount; vm++) {
-            double exec = vmWork[vm] / cap;
-            makespan = Math.max(makespan, exec);
-            // double util = exec == 0 ? 0 : vmWork[vm] / (cap * makespan);
-            // double power = 100 + util * 150;
-            // energy += power * exec;
+        System.arraycopy(orderStart, 0, cursor, 0, vmCount);
+        for (int taskId : perm) {
+            orderTasks[cursor[mapping[taskId]]++] = taskId;
         }
+    }
 
-        double qos = 0;
-        for (int i = 0; i < taskCount; i++) {
-            double ft = vmWork[mapping[i]] / cap;
-            double d = originalDag.get(i).deadline;
-            double l = originalDag.get(i).cloudlet.getLength() / cap;
-            qos += 1 - Math.max(0, (ft - d) / l);
+    private List<ParetoPoint> front(ParetoArchive archive) {
+        int[] mapping = new int[taskCount], orderStart = new int[vmCount + 1], orderTasks = new int[taskCount];
+        List<ParetoPoint> front = new ArrayList<>(archive.size());
+        for (int i = 0; i < archive.size(); i++) {
+            archive.copyMapping(i, mapping);
+            archive.copyOrder(i, orderStart, orderTasks);
+            front.add(new ParetoPoint(archive.objective(i, 0), archive.objective(i, 1), 1 - archive.objective(i, 2),
+                    toRun(mapping, orderStart, orderTasks)));
         }
-
-        qos = Math.max(0, qos / taskCount);
-        return 0.5 * (makespan / 10.0) - 0.3 * qos;
+        front.sort(Comparator.comparingDouble(ParetoPoint::makespan));
+        return front;
     }
 
-    private List<App.TaskNode> applyToDag(int[] mapping, Map<Integer, List<Integer>> orderMap) {
-        List<App.TaskNode> copy = TaskDagGenerator.deepCopyDag(originalDag);
+    private DagRun toRun(int[] mapping, int[] orderStart, int[] orderTasks) {
+        DagRun run = DagRun.of(graph);
         for (int i = 0; i < taskCount; i++) {
-            copy.get(i).setPreferredVm(mapping[i]);
+            run.setPreferredVm(i, mapping[i]);
         }
 
-        for (Map.Entry<Integer, List<Integer>> entry : orderMap.entrySet())
-            for (int order = 0; order < entry.getValue().size(); order++) {
-                int taskId = entry.getValue().get(order);
-                copy.get(taskId).setExecutionOrder(order);
+        for (int vm = 0; vm < vmCount; vm++)
+            for (int k = orderStart[vm]; k < orderStart[vm + 1]; k++) {
+                run.setExecutionOrder(orderTasks[k], k - orderStart[vm]);
             }
 
-        return copy;
+        return run;
     }
-}
\ No newline at end of file
+}
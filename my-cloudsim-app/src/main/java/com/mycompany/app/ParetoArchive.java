@@ -0,0 +1,152 @@
+package com.mycompany.app;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+// Bounded archive of mutually non-dominated PSO positions for the multi-objective mode. Members live
+// in flat arrays, member i at slot i: its objective vector at [i * m, (i + 1) * m) and its mapping and
+// CSR order at the matching offsets, so the archive allocates nothing after construction. All
+// objectives are minimised.
+//
+// A candidate that no member dominates (or equals) enters and evicts the members it dominates. When
+// that would overflow the capacity, the member with the smallest crowding distance (NSGA-II) goes,
+// which may be the candidate itself; the front stays spread along its whole extent.
+final class ParetoArchive {
+
+    private final int m, capacity, taskCount, vmCount;
+    private final double[] objectives;
+    private final int[] mappings, orderStarts, orderTasks;
+    private final double[] crowding;
+    private final int[] sortBuffer;
+    private int size;
+
+    // One slot beyond `capacity` holds a candidate while the eviction is decided.
+    ParetoArchive(int objectiveCount, int capacity, int taskCount, int vmCount) {
+        if (capacity < 1) throw new IllegalArgumentException("capacity must be >= 1: " + capacity);
+        this.m = objectiveCount;
+        this.capacity = capacity;
+        this.taskCount = taskCount;
+        this.vmCount = vmCount;
+        this.objectives = new double[(capacity + 1) * m];
+        this.mappings = new int[(capacity + 1) * taskCount];
+        this.orderStarts = new int[(capacity + 1) * (vmCount + 1)];
+        this.orderTasks = new int[(capacity + 1) * taskCount];
+        this.crowding = new double[capacity + 1];
+        this.sortBuffer = new int[capacity + 1];
+    }
+
+    int size() {
+        return size;
+    }
+
+    double objective(int member, int k) {
+        return objectives[member * m + k];
+    }
+
+    // Returns whether the candidate was kept.
+    boolean offer(double[] candidate, int[] mapping, int[] orderStart, int[] order) {
+        for (int i = 0; i < size; i++) {
+            if (weaklyDominates(objectives, i * m, candidate, 0)) return false;
+        }
+        for (int i = 0; i < size; ) {
+            if (weaklyDominates(candidate, 0, objectives, i * m)) moveSlot(--size, i);
+            else i++;
+        }
+
+        int slot = size++;
+        System.arraycopy(candidate, 0, objectives, slot * m, m);
+        System.arraycopy(mapping, 0, mappings, slot * taskCount, taskCount);
+        System.arraycopy(orderStart, 0, orderStarts, slot * (vmCount + 1), vmCount + 1);
+        System.arraycopy(order, 0, orderTasks, slot * taskCount, taskCount);
+        if (size <= capacity) return true;
+
+        updateCrowding();
+        int evict = 0;
+        for (int i = 1; i < size; i++) if (crowding[i] < crowding[evict]) evict = i;
+        moveSlot(--size, evict);
+        return evict != slot;
+    }
+
+    // Crowding distance of every member: per objective, the gap between its neighbours in that
+    // objective over the objective's range; the extremes get +inf. Each objective is sorted by an
+    // insertion sort over a primitive index array, so this allocates nothing; archives hold tens to
+    // a few hundred members.
+    void updateCrowding() {
+        Arrays.fill(crowding, 0, size, 0);
+        if (size <= 2) {
+            Arrays.fill(crowding, 0, size, Double.POSITIVE_INFINITY);
+            return;
+        }
+        for (int k = 0; k < m; k++) {
+            sortBy(k);
+            double min = objectives[sortBuffer[0] * m + k], max = objectives[sortBuffer[size - 1] * m + k];
+            crowding[sortBuffer[0]] = crowding[sortBuffer[size - 1]] = Double.POSITIVE_INFINITY;
+            if (max == min) continue;
+            for (int j = 1; j < size - 1; j++) {
+                int i = sortBuffer[j];
+                crowding[i] += (objectives[sortBuffer[j + 1] * m + k] - objectives[sortBuffer[j - 1] * m + k]) / (max - min);
+            }
+        }
+    }
+
+    // Members in slot order, stably sorted by objective k. Conflicting objectives leave the buffer
+    // close to reversed after the previous one, so each sort starts over from slot order.
+    private void sortBy(int k) {
+        for (int i = 0; i < size; i++) sortBuffer[i] = i;
+        for (int j = 1; j < size; j++) {
+            int member = sortBuffer[j];
+            double value = objectives[member * m + k];
+            int i = j - 1;
+            while (i >= 0 && objectives[sortBuffer[i] * m + k] > value) {
+                sortBuffer[i + 1] = sortBuffer[i];
+                i--;
+            }
+            sortBuffer[i + 1] = member;
+        }
+    }
+
+    // Binary tournament on crowding distance: the leader of a particle comes from the sparser
+    // regions of the front more often. Uses the crowding of the last updateCrowding().
+    int selectLeader(RandomGenerator rnd) {
+        int a = rnd.nextInt(size), b = rnd.nextInt(size);
+        return crowding[a] >= crowding[b] ? a : b;
+    }
+
+    void copyMapping(int member, int[] into) {
+        System.arraycopy(mappings, member * taskCount, into, 0, taskCount);
+    }
+
+    void copyOrder(int member, int[] orderStart, int[] order) {
+        System.arraycopy(orderStarts, member * (vmCount + 1), orderStart, 0, vmCount + 1);
+        System.arraycopy(orderTasks, member * taskCount, order, 0, taskCount);
+    }
+
+    // a is no worse than b in every objective (so a dominates b, or they are equal).
+    static boolean weaklyDominates(double[] a, int aFrom, double[] b, int bFrom, int m) {
+        for (int k = 0; k < m; k++) if (a[aFrom + k] > b[bFrom + k]) return false;
+        return true;
+    }
+
+    // a is no worse than b anywhere and better somewhere.
+    static boolean dominates(double[] a, double[] b) {
+        boolean better = false;
+        for (int k = 0; k < a.length; k++) {
+            if (a[k] > b[k]) return false;
+            if (a[k] < b[k]) better = true;
+        }
+        return better;
+    }
+
+    private boolean weaklyDominates(double[] a, int aFrom, double[] b, int bFrom) {
+        return weaklyDominates(a, aFrom, b, bFrom, m);
+    }
+
+    private void moveSlot(int from, int to) {
+        if (from == to) return;
+        System.arraycopy(objectives, from * m, objectives, to * m, m);
+        System.arraycopy(mappings, from * taskCount, mappings, to * taskCount, taskCount);
+        System.arraycopy(orderStarts, from * (vmCount + 1), orderStarts, to * (vmCount + 1), vmCount + 1);
+        System.arraycopy(orderTasks, from * taskCount, orderTasks, to * taskCount, taskCount);
+        crowding[to] = crowding[from];
+    }
+}
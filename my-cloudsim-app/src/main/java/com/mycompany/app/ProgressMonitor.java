@@ -0,0 +1,143 @@
+package com.mycompany.app;
+
+import com.mycompany.app.SingleSimulationRunner.SimulationResult;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+// Validates the PSO's gBest with a full CloudSim run while the swarm is running. Results are cached
+// per (mapping, order) solution, so an unchanged gBest is never simulated twice, and in async mode
+// the simulation runs on a background thread that only ever keeps the newest pending request.
+//
+// A ProgressMonitor is only the immutable policy and can be shared by concurrent runs; begin()
+// gives every run its own Session holding the simulator, cache and worker thread.
+public class ProgressMonitor {
+
+    public enum Mode { OFF, EVERY_N, ON_IMPROVEMENT }
+
+    @FunctionalInterface
+    public interface Simulator {
+        SimulationResult simulate(int[] mapping, int[] orderStart, int[] orderTasks);
+    }
+
+    private static final int CACHE_SIZE = 64;
+
+    private final Mode mode;
+    private final int interval;
+    private final boolean async;
+
+    public ProgressMonitor(Mode mode, int interval, boolean async) {
+        if (mode == Mode.EVERY_N && interval < 1) throw new IllegalArgumentException("interval must be >= 1: " + interval);
+        this.mode = mode;
+        this.interval = interval;
+        this.async = async;
+    }
+
+    public static ProgressMonitor off() {
+        return new ProgressMonitor(Mode.OFF, 0, false);
+    }
+
+    public static ProgressMonitor everyN(int interval) {
+        return new ProgressMonitor(Mode.EVERY_N, interval, false);
+    }
+
+    public static ProgressMonitor onImprovement() {
+        return new ProgressMonitor(Mode.ON_IMPROVEMENT, 0, false);
+    }
+
+    public ProgressMonitor async() {
+        return new ProgressMonitor(mode, interval, true);
+    }
+
+    Session begin(Simulator simulator) {
+        return new Session(simulator);
+    }
+
+    // Progress checks of one PSO run.
+    final class Session {
+        private final Simulator simulator;
+        private final ThreadPoolExecutor worker;
+        private final Map<SolutionKey, SimulationResult> cache = Collections.synchronizedMap(
+                new LinkedHashMap<>(16, 0.75f, true) {
+                    @Override
+                    protected boolean removeEldestEntry(Map.Entry<SolutionKey, SimulationResult> eldest) {
+                        return size() > CACHE_SIZE;
+                    }
+                });
+
+        private Session(Simulator simulator) {
+            this.simulator = simulator;
+            this.worker = async && mode != Mode.OFF
+                    ? new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(1), r -> {
+                        Thread t = new Thread(r, "pso-progress");
+                        t.setDaemon(true);
+                        return t;
+                    }, new ThreadPoolExecutor.DiscardOldestPolicy())
+                    : null;
+        }
+
+        void onIteration(int iter, boolean improved, int[] mapping, int[] orderStart, int[] orderTasks) {
+            boolean due = switch (mode) {
+                case OFF -> false;
+                case EVERY_N -> iter % interval == 0;
+                case ON_IMPROVEMENT -> improved;
+            };
+            if (!due) return;
+
+            SolutionKey key = new SolutionKey(mapping, orderStart, orderTasks);
+            if (worker != null) {
+                worker.execute(() -> check(iter, key));
+            } else {
+                check(iter, key);
+            }
+        }
+
+        // Waits for a pending async check.
+        void end() {
+            if (worker == null) return;
+            worker.shutdown();
+            try {
+                worker.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                worker.shutdownNow();
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private void check(int iter, SolutionKey key) {
+            SimulationResult res = cache.get(key);
+            if (res == null) {
+                res = simulator.simulate(key.mapping, key.orderStart, key.orderTasks);
+                cache.put(key, res);
+            }
+            System.out.printf("Iter %d → Makespan=%.2f | QoS=%.2f%%\n", iter, res.makespan(), res.qosScore() * 100);
+        }
+    }
+
+    // Snapshot of a solution: the scheduler reuses its gBest buffers, so the arrays are copied.
+    private static final class SolutionKey {
+        final int[] mapping, orderStart, orderTasks;
+        final int hash;
+
+        SolutionKey(int[] mapping, int[] orderStart, int[] orderTasks) {
+            this.mapping = mapping.clone();
+            this.orderStart = orderStart.clone();
+            this.orderTasks = orderTasks.clone();
+            this.hash = 31 * (31 * Arrays.hashCode(this.mapping) + Arrays.hashCode(this.orderStart))
+                    + Arrays.hashCode(this.orderTasks);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof SolutionKey k)) return false;
+            return hash == k.hash && Arrays.equals(mapping, k.mapping)
+                    && Arrays.equals(orderStart, k.orderStart) && Arrays.equals(orderTasks, k.orderTasks);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
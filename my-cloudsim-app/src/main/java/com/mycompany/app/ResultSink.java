@@ -0,0 +1,89 @@
+package com.mycompany.app;
+
+import com.mycompany.app.SingleSimulationRunner.SimulationResult;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.file.Path;
+
+// Where the runners stream their output: one row per simulated grid cell and one point per PSO
+// iteration, written as they are produced rather than collected for the end. Implementations must
+// accept calls from several sweep threads at once.
+public interface ResultSink extends AutoCloseable {
+
+    // One simulated cell. `run` is the cell label that fitness points of the same cell carry.
+    record Row(String run, String algorithm, int tasks, int vms,
+               double makespan, double energy, double missRatio, double qos, double totalExecutionTime) {
+
+        // Binary form for the sweep journal.
+        public static final SweepJournal.Codec<Row> CODEC = new SweepJournal.Codec<>() {
+            @Override
+            public void write(DataOutput out, Row r) throws IOException {
+                out.writeUTF(r.run());
+                out.writeUTF(r.algorithm());
+                out.writeInt(r.tasks());
+                out.writeInt(r.vms());
+                out.writeDouble(r.makespan());
+                out.writeDouble(r.energy());
+                out.writeDouble(r.missRatio());
+                out.writeDouble(r.qos());
+                out.writeDouble(r.totalExecutionTime());
+            }
+
+            @Override
+            public Row read(DataInput in) throws IOException {
+                return new Row(in.readUTF(), in.readUTF(), in.readInt(), in.readInt(),
+                        in.readDouble(), in.readDouble(), in.readDouble(), in.readDouble(), in.readDouble());
+            }
+        };
+
+        public static Row of(String run, String algorithm, int tasks, int vms, SimulationResult r) {
+            return new Row(run, algorithm, tasks, vms,
+                    r.makespan(), r.energy(), r.deadlineMissRatio(), r.qosScore(), r.totalExecutionTime());
+        }
+    }
+
+    enum Format { CSV, JSONL }
+
+    void result(Row row);
+
+    void fitness(String run, int iteration, double fitness);
+
+    @Override
+    void close();
+
+    static ResultSink none() {
+        return new ResultSink() {
+            @Override
+            public void result(Row row) {}
+
+            @Override
+            public void fitness(String run, int iteration, double fitness) {}
+
+            @Override
+            public void close() {}
+        };
+    }
+
+    // results.csv + fitness.csv, or results.jsonl + fitness.jsonl, inside `dir`. With `append` the
+    // files of an earlier, resumed run are continued instead of replaced.
+    static ResultSink open(Path dir, Format format, boolean append) {
+        return new FileResultSink(dir, format, append);
+    }
+
+    static ResultSink open(Path dir, Format format) {
+        return open(dir, format, false);
+    }
+
+    // CSV unless -Dresults.format=jsonl.
+    static ResultSink open(Path dir, boolean append) {
+        return open(dir, Format.valueOf(System.getProperty("results.format", "csv").toUpperCase()), append);
+    }
+
+    // Output directory of one runner invocation: <results.dir>/<runner>-<seed>, results.dir
+    // defaulting to ./results.
+    static Path runDirectory(String runner, long seed) {
+        return Path.of(System.getProperty("results.dir", "results"), runner + "-" + seed);
+    }
+}
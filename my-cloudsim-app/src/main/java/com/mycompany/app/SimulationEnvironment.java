@@ -0,0 +1,85 @@
+package com.mycompany.app;
+
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.datacenters.Datacenter;
+import org.cloudbus.cloudsim.datacenters.DatacenterSimple;
+import org.cloudbus.cloudsim.hosts.Host;
+import org.cloudbus.cloudsim.hosts.HostSimple;
+import org.cloudbus.cloudsim.power.models.PowerModelHostSimple;
+import org.cloudbus.cloudsim.resources.Pe;
+import org.cloudbus.cloudsim.resources.PeSimple;
+import org.cloudbus.cloudsim.schedulers.vm.VmSchedulerTimeShared;
+import org.cloudbus.cloudsim.vms.Vm;
+import org.cloudbus.cloudsim.vms.VmSimple;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+// The infrastructure one simulation runs on, as immutable specs: how many hosts and VMs of which
+// shape, and whether energy is measured. Environments are cached per (vmCount, energy) and shared by
+// all threads; only createDatacenter/createVms build CloudSim objects, which are fresh every time
+// because hosts, PEs, power models and VMs are bound to the simulation they are used in.
+//
+// The host count follows the VM count: a host has room for HOST.pes() / VM.pes() VMs, so 10 VMs get
+// 2 hosts instead of the 13 that used to be built for 100 VMs whatever the run. Hosts without VMs
+// still drew static power, so energy figures of small runs are lower than before.
+public final class SimulationEnvironment {
+
+    public record HostSpec(int pes, double mipsPerPe, long ram, long bw, long storage,
+                           double maxPower, double staticPower, double startupPower, double shutDownPower) {}
+
+    public record VmSpec(double mips, int pes, long ram, long bw, long size) {}
+
+    public static final HostSpec HOST = new HostSpec(16, 1000, 8192, 40000, 1000000, 250, 100, 50, 30);
+    public static final VmSpec VM = new VmSpec(1000, 2, 512, 1000, 10000);
+
+    private static final ConcurrentHashMap<Long, SimulationEnvironment> CACHE = new ConcurrentHashMap<>();
+
+    public final int vmCount;
+    public final int hostCount;
+    public final boolean energy;            // an EnergyMeter runs alongside the simulation
+
+    private SimulationEnvironment(int vmCount, boolean energy) {
+        this.vmCount = vmCount;
+        this.hostCount = Math.max(1, (int) Math.ceil(vmCount / (double) (HOST.pes() / VM.pes())));
+        this.energy = energy;
+    }
+
+    public static SimulationEnvironment of(int vmCount) {
+        return of(vmCount, true);
+    }
+
+    // Without energy, runSimulation attaches no EnergyMeter and reports NaN energy.
+    public static SimulationEnvironment of(int vmCount, boolean energy) {
+        if (vmCount < 1) throw new IllegalArgumentException("vmCount must be >= 1: " + vmCount);
+        return CACHE.computeIfAbsent((long) vmCount << 1 | (energy ? 1 : 0), k -> new SimulationEnvironment(vmCount, energy));
+    }
+
+    public Datacenter createDatacenter(CloudSim simulation) {
+        List<Host> hostList = new ArrayList<>(hostCount);
+        for (int i = 0; i < hostCount; i++) {
+            List<Pe> peList = new ArrayList<>(HOST.pes());
+            for (int j = 0; j < HOST.pes(); j++) peList.add(new PeSimple(HOST.mipsPerPe()));
+            Host host = new HostSimple(HOST.ram(), HOST.bw(), HOST.storage(), peList);
+            host.setVmScheduler(new VmSchedulerTimeShared());
+
+            var powerModel = new PowerModelHostSimple(HOST.maxPower(), HOST.staticPower());
+            powerModel.setStartupPower(HOST.startupPower()).setShutDownPower(HOST.shutDownPower());
+            host.setPowerModel(powerModel);
+
+            hostList.add(host);
+        }
+        return new DatacenterSimple(simulation, hostList);
+    }
+
+    public List<Vm> createVms() {
+        List<Vm> vmList = new ArrayList<>(vmCount);
+        for (int i = 0; i < vmCount; i++) {
+            Vm vm = new VmSimple(VM.mips(), VM.pes());
+            vm.setRam(VM.ram()).setBw(VM.bw()).setSize(VM.size());
+            vmList.add(vm);
+        }
+        return vmList;
+    }
+}
@@ -2,68 +2,68 @@ package com.mycompany.app;
 
 import org.cloudbus.cloudsim.core.CloudSim;
 import org.cloudbus.cloudsim.datacenters.Datacenter;
-import org.cloudbus.cloudsim.datacenters.DatacenterSimple;
-import org.cloudbus.cloudsim.hosts.Host;
-import org.cloudbus.cloudsim.hosts.HostSimple;
-import org.cloudbus.cloudsim.resources.Pe;
-import org.cloudbus.cloudsim.resources.PeSimple;
-import org.cloudbus.cloudsim.schedulers.vm.VmSchedulerTimeShared;
 import org.cloudbus.cloudsim.vms.Vm;
-import org.cloudbus.cloudsim.vms.VmSimple;
-import org.cloudbus.cloudsim.power.models.PowerModelHostSimple;
 
 
 import java.util.*;
 
 public class SimulationUtils {
 
+    // The fixed 13-host datacenter (room for 100 VMs) every simulation used to run on; new code
+    // takes a right-sized SimulationEnvironment instead.
     public static Datacenter createSimpleDatacenter(CloudSim simulation) {
-        List<Host> hostList = new ArrayList<>();
-        int hostsNeeded = (int) Math.ceil(100.0 / 8);
-        for (int i = 0; i < hostsNeeded; i++) {
-            List<Pe> peList = new ArrayList<>();
-            for (int j = 0; j < 16; j++) peList.add(new PeSimple(1000));
-            Host host = new HostSimple(8192, 40000, 1000000, peList);
-            host.setVmScheduler(new VmSchedulerTimeShared());
-            host.enableUtilizationStats();
-
-            var powerModel = new PowerModelHostSimple(250, 100);
-            powerModel.setStartupPower(50).setShutDownPower(30);
-            host.setPowerModel(powerModel);
-
-            hostList.add(host);
-        }
-        return new DatacenterSimple(simulation, hostList);
+        return SimulationEnvironment.of(100).createDatacenter(simulation);
     }
 
     public static List<Vm> createVmList(int count) {
-        List<Vm> vmList = new ArrayList<>();
-        for (int i = 0; i < count; i++) {
-            Vm vm = new VmSimple(1000, 2);
-            vm.enableUtilizationStats();
-            vm.setRam(512).setBw(1000).setSize(10000);
-            vmList.add(vm);
-        }
-        return vmList;
+        return SimulationEnvironment.of(count).createVms();
     }
 
+    // Memoised on the nodes. Both walk the DAG with an explicit stack, so deep chains cannot
+    // overflow the call stack; for whole DAGs GraphAnalysis computes the same values over arrays.
     public static double computeRankU(App.TaskNode node) {
         if (node.rankU >= 0) return node.rankU;
-        if (node.children.isEmpty()) return node.rankU = node.cloudlet.getLength();
-        double max = 0;
-        for (App.TaskNode child : node.children) {
-            max = Math.max(max, computeRankU(child));
+        Deque<App.TaskNode> stack = new ArrayDeque<>();
+        stack.push(node);
+        while (!stack.isEmpty()) {
+            App.TaskNode top = stack.peek();
+            boolean ready = true;
+            for (App.TaskNode child : top.children) {
+                if (child.rankU < 0) {
+                    stack.push(child);
+                    ready = false;
+                }
+            }
+            if (!ready) continue;
+            stack.pop();
+            if (top.rankU >= 0) continue;
+            double max = 0;
+            for (App.TaskNode child : top.children) max = Math.max(max, child.rankU);
+            top.rankU = top.cloudlet.getLength() + max;
         }
-        return node.rankU = node.cloudlet.getLength() + max;
+        return node.rankU;
     }
 
     public static double computeRankD(App.TaskNode node) {
         if (node.rankD >= 0) return node.rankD;
-        if (node.parents.isEmpty()) return node.rankD = node.cloudlet.getLength();
-        double max = 0;
-        for (App.TaskNode parent : node.parents) {
-            max = Math.max(max, computeRankD(parent));
+        Deque<App.TaskNode> stack = new ArrayDeque<>();
+        stack.push(node);
+        while (!stack.isEmpty()) {
+            App.TaskNode top = stack.peek();
+            boolean ready = true;
+            for (App.TaskNode parent : top.parents) {
+                if (parent.rankD < 0) {
+                    stack.push(parent);
+                    ready = false;
+                }
+            }
+            if (!ready) continue;
+            stack.pop();
+            if (top.rankD >= 0) continue;
+            double max = 0;
+            for (App.TaskNode parent : top.parents) max = Math.max(max, parent.rankD);
+            top.rankD = top.cloudlet.getLength() + max;
         }
-        return node.rankD = node.cloudlet.getLength() + max;
+        return node.rankD;
     }
 }
@@ -1,84 +1,103 @@
 package com.mycompany.app;
 
-import org.cloudbus.cloudsim.brokers.DatacenterBrokerSimple;
 import org.cloudbus.cloudsim.cloudlets.Cloudlet;
 import org.cloudbus.cloudsim.core.CloudSim;
 import org.cloudbus.cloudsim.datacenters.Datacenter;
 import org.cloudbus.cloudsim.vms.Vm;
-import org.cloudbus.cloudsim.hosts.Host;
 
 import java.util.*;
+import java.util.random.RandomGenerator;
 
 public class SingleSimulationRunner {
 
+    static final Metrics.Timer BUILD = Metrics.timer("simulation_build",
+            "Setting up a CloudSim run: datacenter, broker, VMs and cloudlet submission", true);
+    static final Metrics.Timer RUN = Metrics.timer("simulation_run", "CloudSim event loop of one simulation", true);
+
     public record SimulationResult(
             double makespan,
             double totalExecutionTime,
             double deadlineMissRatio,
             double qosScore,
-            double energy
-    ) {}
+            double energy,
+            EnergyMeter.Breakdown energyBreakdown
+    ) {
+        public SimulationResult(double makespan, double totalExecutionTime, double deadlineMissRatio, double qosScore,
+                                double energy) {
+            this(makespan, totalExecutionTime, deadlineMissRatio, qosScore, energy, EnergyMeter.Breakdown.NONE);
+        }
+    }
 
+    // Cloudlets are released by a DagBroker as their parents finish, so the makespan honours the
+    // precedence constraints; VM picks are made up front, in dispatchOrder, so they do not depend on
+    // the event order.
+    //
+    // Simulates the nodes' own cloudlets, so finish times stay readable on the nodes afterwards. A
+    // PSO schedule (any executionOrder set) is sorted into execution order first, as before.
     public static SimulationResult runSimulation(List<App.TaskNode> dag, int vmCount) {
-        CloudSim simulation = new CloudSim();
-        Datacenter datacenter = SimulationUtils.createSimpleDatacenter(simulation);
-        DatacenterBrokerSimple broker = new DatacenterBrokerSimple(simulation);
-
-        List<Vm> vmList = SimulationUtils.createVmList(vmCount);
-        broker.submitVmList(vmList);
+        if (dag.stream().anyMatch(t -> t.getExecutionOrder() >= 0)) {
+            dag.sort(Comparator.comparingInt(App.TaskNode::getExecutionOrder));
+        }
+        TaskGraph graph = TaskGraph.of(dag);
+        GraphAnalysis.of(graph).applyRanks(dag);
+        return runSimulation(DagRun.adopt(graph, dag), vmCount);
+    }
 
-        Random rand = new Random();
+    public static SimulationResult runSimulation(DagRun run, int vmCount) {
+        return runSimulation(run, vmCount, RandomStreams.nextSeed());
+    }
 
-        dag.forEach(SimulationUtils::computeRankU);
-        dag.forEach(SimulationUtils::computeRankD);
+    // `seed` drives the random VM picks for tasks without a preferred VM.
+    public static SimulationResult runSimulation(DagRun run, int vmCount, long seed) {
+        return runSimulation(run, SimulationEnvironment.of(vmCount), seed);
+    }
 
-        Set<App.TaskNode> scheduled = new HashSet<>();
+    public static SimulationResult runSimulation(DagRun run, SimulationEnvironment env, long seed) {
+        CloudSim simulation;
+        Datacenter datacenter;
+        DagBroker broker;
+        EnergyMeter meter = null;
+        try (Metrics.Span span = BUILD.start()) {
+            simulation = new CloudSim();
+            datacenter = env.createDatacenter(simulation);
+            int[] order = dispatchOrder(run);
+            broker = new DagBroker(simulation, run, order);
 
-        boolean isPSO = dag.stream().anyMatch(t -> t.getExecutionOrder() >= 0);
+            List<Vm> vmList = env.createVms();
+            broker.submitVmList(vmList);
+            if (env.energy) meter = EnergyMeter.attach(simulation, datacenter.getHostList(), vmList);
 
-        if (isPSO) {
-            dag.sort(Comparator.comparingInt(App.TaskNode::getExecutionOrder));
-        }
-
-        while (scheduled.size() < dag.size()) {
-            for (App.TaskNode node : dag.stream()
-                    .filter(n -> !scheduled.contains(n))
-                    .filter(n -> n.isReady(scheduled))
-                    .sorted(isPSO ?
-                            Comparator.comparingInt(App.TaskNode::getExecutionOrder)
-                            : Comparator.comparingDouble(App.TaskNode::getCPOPScore).reversed()
-                    )
-                    .toList()) {
+            RandomGenerator rand = RandomStreams.random(seed);
 
+            for (int task : order) {
                 Vm selectedVm;
 
-                if (node.getPreferredVm() >= 0 && node.getPreferredVm() < vmList.size()) {
-                    selectedVm = vmList.get(node.getPreferredVm());
+                int preferredVm = run.preferredVm[task];
+                if (preferredVm >= 0 && preferredVm < vmList.size()) {
+                    selectedVm = vmList.get(preferredVm);
                 } else {
                     selectedVm = vmList.get(rand.nextInt(vmList.size()));
                 }
 
-                node.cloudlet.setVm(selectedVm);
-                broker.submitCloudlet(node.cloudlet);
-                scheduled.add(node);
+                run.cloudlets[task].setVm(selectedVm);
             }
+            broker.submitDag();
         }
 
-        simulation.start();
-
-        double totalEnergy = 0.0;
-        double time = simulation.clock();
-        for (Host h : datacenter.getHostList()) {
-            double util = 0;
-            for (Vm vm : h.getVmList()) {
-                util += vm.getCpuPercentUtilization(time);
-            }
-            double avgUtil = h.getVmList().isEmpty() ? 0 : util / h.getVmList().size();
-            double power = h.getPowerModel().getPower(avgUtil);
-            totalEnergy += power * time;
+        try (Metrics.Span span = RUN.start()) {
+            simulation.start();
         }
 
+        EnergyMeter.Breakdown energy = meter == null ? EnergyMeter.Breakdown.NONE : meter.finish(simulation.clock());
+        double totalEnergy = meter == null ? Double.NaN : energy.total();
+
+        // Unfinished cloudlets report finish -1 and would score as perfect QoS, so a DAG the broker
+        // did not run to the end is an error rather than a good result.
         List<Cloudlet> finished = broker.getCloudletFinishedList();
+        if (finished.size() != run.graph.taskCount) {
+            throw new IllegalStateException("Only " + finished.size() + " of " + run.graph.taskCount
+                    + " cloudlets finished; the DAG broker stalled");
+        }
 
         double makespan = finished.stream()
                 .mapToDouble(Cloudlet::getFinishTime)
@@ -89,20 +108,51 @@ public class SingleSimulationRunner {
                 .mapToDouble(Cloudlet::getActualCpuTime)
                 .sum();
 
-        long missed = dag.stream().filter(App.TaskNode::isDeadlineViolated).count();
-        double missRatio = (double) missed / dag.size();
-
+        TaskGraph graph = run.graph;
+        int n = graph.taskCount;
+        long missed = 0;
         double qos = 0;
-        for (App.TaskNode task : dag) {
-            double finish = task.cloudlet.getFinishTime();
-            double deadline = task.deadline;
-            double execTime = task.cloudlet.getActualCpuTime();
+        for (int t = 0; t < n; t++) {
+            Cloudlet cloudlet = run.cloudlets[t];
+            double finish = cloudlet.getFinishTime();
+            double deadline = graph.deadline[t];
+            double execTime = cloudlet.getActualCpuTime();
 
+            if (finish > deadline) missed++;
             qos += 1 - Math.max(0, (finish - deadline) / execTime);
         }
+        double missRatio = (double) missed / n;
+
+        qos = Math.max(0, qos / n);
 
-        qos = Math.max(0, qos / dag.size());
+        return new SimulationResult(makespan, totalExec, missRatio, qos, totalEnergy, energy);
+    }
 
-        return new SimulationResult(makespan, totalExec, missRatio, qos, totalEnergy);
+    // Priority order for the VM picks and for tasks a DagBroker releases together: waves, where a
+    // wave holds every task whose parents all sit in earlier waves (i.e. one GraphAnalysis level),
+    // each sorted by execution order for a PSO schedule or by descending CPOP score otherwise, ties
+    // kept in list position.
+    static int[] dispatchOrder(DagRun run) {
+        GraphAnalysis analysis = GraphAnalysis.of(run.graph);
+        Comparator<Integer> priority;
+        if (run.hasExecutionOrder()) {
+            priority = Comparator.comparingInt(t -> run.executionOrder[t]);
+        } else {
+            double[] score = new double[run.taskCount()];
+            for (int t = 0; t < score.length; t++) score[t] = analysis.rankU[t] + analysis.rankD[t];
+            priority = (a, b) -> Double.compare(score[b], score[a]);
+        }
+        priority = priority.thenComparingInt(t -> run.position[t]);
+
+        int[] order = new int[run.taskCount()];
+        Integer[] wave = new Integer[0];
+        for (int l = 0; l < analysis.levelCount(); l++) {
+            int from = analysis.levelStart[l], to = analysis.levelStart[l + 1];
+            if (wave.length < to - from) wave = new Integer[to - from];
+            for (int k = from; k < to; k++) wave[k - from] = analysis.order[k];
+            Arrays.sort(wave, 0, to - from, priority);
+            for (int k = from; k < to; k++) order[k] = wave[k - from];
+        }
+        return order;
     }
-}
\ No newline at end of file
+}
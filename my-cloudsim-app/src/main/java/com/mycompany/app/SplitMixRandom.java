@@ -0,0 +1,72 @@
+package com.mycompany.app;
+
+import java.util.random.RandomGenerator;
+
+// SplitMix64 with the exact algorithm of java.util.SplittableRandom (same seed -> same sequence, same
+// split() children), but with its two words of state readable and restorable so a PSO run can be
+// checkpointed mid-flight. The bounded and floating-point draws are RandomGenerator's defaults, which
+// are the ones SplittableRandom uses too.
+final class SplitMixRandom implements RandomGenerator {
+
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+    private long seed;
+    private final long gamma;             // odd
+
+    SplitMixRandom(long seed) {
+        this(seed, GOLDEN_GAMMA);
+    }
+
+    // Restores a generator from seed() and gamma() of another one.
+    SplitMixRandom(long seed, long gamma) {
+        if ((gamma & 1) == 0) throw new IllegalArgumentException("gamma must be odd: " + gamma);
+        this.seed = seed;
+        this.gamma = gamma;
+    }
+
+    long seed() {
+        return seed;
+    }
+
+    long gamma() {
+        return gamma;
+    }
+
+    // New generator whose stream is independent of this one's remaining stream.
+    SplitMixRandom split() {
+        return new SplitMixRandom(nextLong(), mixGamma(nextSeed()));
+    }
+
+    @Override
+    public long nextLong() {
+        return mix64(nextSeed());
+    }
+
+    @Override
+    public int nextInt() {
+        return mix32(nextSeed());
+    }
+
+    private long nextSeed() {
+        return seed += gamma;
+    }
+
+    private static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    private static int mix32(long z) {
+        z = (z ^ (z >>> 33)) * 0x62a9d9ed799705f5L;
+        return (int) (((z ^ (z >>> 28)) * 0xcb24d0a5c88c35b3L) >>> 32);
+    }
+
+    private static long mixGamma(long z) {
+        z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+        z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        z = (z ^ (z >>> 33)) | 1L;
+        int n = Long.bitCount(z ^ (z >>> 1));
+        return (n < 24) ? z ^ 0xaaaaaaaaaaaaaaaaL : z;
+    }
+}
@@ -0,0 +1,84 @@
+package com.mycompany.app;
+
+import java.time.Duration;
+import java.util.List;
+
+// When a PSO run stops. The iteration cap always applies; the other criteria are opt-in and the
+// first one that fires wins. Criteria are checked between iterations, and at least one iteration
+// always runs so there is a gBest to return.
+public final class StoppingCriteria {
+
+    public enum Reason { MAX_ITERATIONS, NO_IMPROVEMENT, CONVERGED, TIME_BUDGET, EVALUATION_BUDGET }
+
+    private final int maxIterations;
+    private final int noImprovementWindow;
+    private final double minRelativeImprovement;
+    private final int convergenceWindow;
+    private final long timeBudgetNanos;
+    private final long evaluationBudget;
+
+    private StoppingCriteria(int maxIterations, int noImprovementWindow, double minRelativeImprovement,
+                             int convergenceWindow, long timeBudgetNanos, long evaluationBudget) {
+        this.maxIterations = maxIterations;
+        this.noImprovementWindow = noImprovementWindow;
+        this.minRelativeImprovement = minRelativeImprovement;
+        this.convergenceWindow = convergenceWindow;
+        this.timeBudgetNanos = timeBudgetNanos;
+        this.evaluationBudget = evaluationBudget;
+    }
+
+    public static StoppingCriteria maxIterations(int maxIterations) {
+        if (maxIterations < 1) throw new IllegalArgumentException("maxIterations must be >= 1: " + maxIterations);
+        return new StoppingCriteria(maxIterations, 0, 0, 0, 0, 0);
+    }
+
+    // Stop once gBest has not improved at all for `iterations` iterations.
+    public StoppingCriteria noImprovementFor(int iterations) {
+        if (iterations < 1) throw new IllegalArgumentException("iterations must be >= 1: " + iterations);
+        return new StoppingCriteria(maxIterations, iterations, minRelativeImprovement, convergenceWindow, timeBudgetNanos, evaluationBudget);
+    }
+
+    // Stop once gBest improved by less than `threshold` (relative) over the last `window` iterations.
+    public StoppingCriteria relativeImprovementBelow(double threshold, int window) {
+        if (threshold <= 0) throw new IllegalArgumentException("threshold must be > 0: " + threshold);
+        if (window < 1) throw new IllegalArgumentException("window must be >= 1: " + window);
+        return new StoppingCriteria(maxIterations, noImprovementWindow, threshold, window, timeBudgetNanos, evaluationBudget);
+    }
+
+    public StoppingCriteria timeBudget(Duration budget) {
+        if (budget.isNegative() || budget.isZero()) throw new IllegalArgumentException("budget must be positive: " + budget);
+        return new StoppingCriteria(maxIterations, noImprovementWindow, minRelativeImprovement, convergenceWindow, budget.toNanos(), evaluationBudget);
+    }
+
+    // Total fitness evaluations, counting the initial swarm evaluation.
+    public StoppingCriteria evaluationBudget(long evaluations) {
+        if (evaluations < 1) throw new IllegalArgumentException("evaluations must be >= 1: " + evaluations);
+        return new StoppingCriteria(maxIterations, noImprovementWindow, minRelativeImprovement, convergenceWindow, timeBudgetNanos, evaluations);
+    }
+
+    public int getMaxIterations() {
+        return maxIterations;
+    }
+
+    // Returns why the run should stop before starting another iteration, or null to keep going.
+    // `history` holds the gBest fitness after each completed iteration; `evaluationsPerIteration` is
+    // what the next iteration is expected to spend, which PSOScheduler takes from the last one.
+    public Reason check(List<Double> history, long elapsedNanos, long evaluations, int evaluationsPerIteration) {
+        int done = history.size();
+        if (done == 0) return null;
+        if (done >= maxIterations) return Reason.MAX_ITERATIONS;
+        if (evaluationBudget > 0 && evaluations + evaluationsPerIteration > evaluationBudget) return Reason.EVALUATION_BUDGET;
+        if (timeBudgetNanos > 0 && elapsedNanos >= timeBudgetNanos) return Reason.TIME_BUDGET;
+
+        double current = history.get(done - 1);
+        if (noImprovementWindow > 0 && done > noImprovementWindow
+                && history.get(done - 1 - noImprovementWindow) <= current) {
+            return Reason.NO_IMPROVEMENT;
+        }
+        if (convergenceWindow > 0 && done > convergenceWindow) {
+            double before = history.get(done - 1 - convergenceWindow);
+            if (before - current < minRelativeImprovement * Math.max(Math.abs(before), 1e-12)) return Reason.CONVERGED;
+        }
+        return null;
+    }
+}
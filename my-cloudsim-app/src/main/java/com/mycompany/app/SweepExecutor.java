@@ -0,0 +1,142 @@
+package com.mycompany.app;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Runs the cells of an experiment grid concurrently on a bounded pool. Every CloudSim instance is
+// independent, so cells share nothing but their read-only inputs. Each cell gets its own seed,
+// derived from the sweep seed, the run's stream and the cell's index, so a sweep is reproducible
+// whatever the thread count or completion order. Results come back in cell order. The first failure cancels the
+// cells that have not finished and is rethrown.
+public class SweepExecutor implements AutoCloseable {
+
+    static final Metrics.Timer CELL = Metrics.timer("sweep_cell", "One cell of a sweep, end to end");
+
+    // Stream ids of the run() calls that share one executor, so that e.g. DAG i and cell i do not get
+    // the same seed. The cell grid keeps stream 0, whose seeds its journals were written with.
+    public static final int CELL_STREAM = 0;
+    public static final int DAG_STREAM = 1;
+
+    @FunctionalInterface
+    public interface Cell<C, R> {
+        R run(C cell, long seed) throws Exception;
+    }
+
+    private final ExecutorService pool;
+    private final long seed;
+
+    public SweepExecutor(int parallelism, long seed) {
+        if (parallelism < 1) throw new IllegalArgumentException("parallelism must be >= 1: " + parallelism);
+        AtomicInteger threads = new AtomicInteger();
+        this.pool = Executors.newFixedThreadPool(parallelism, r -> {
+            Thread t = new Thread(r, "sweep-" + threads.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        this.seed = seed;
+    }
+
+    // -Dsweep.threads=N overrides the default of one thread per core.
+    public static int defaultParallelism() {
+        return Integer.getInteger("sweep.threads", Runtime.getRuntime().availableProcessors());
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public static long seedFor(long seed, int index) {
+        return RandomStreams.seedFor(seed, index);
+    }
+
+    // Stream 0 is seedFor(seed, index); every other stream first derives its own root from the seed.
+    public static long seedFor(long seed, int stream, int index) {
+        return seedFor(stream == CELL_STREAM ? seed : seedFor(seed, -1 - stream), index);
+    }
+
+    public <C, R> List<R> run(List<C> cells, Cell<C, R> body) {
+        return run(CELL_STREAM, cells, body, null);
+    }
+
+    public <C, R> List<R> run(int stream, List<C> cells, Cell<C, R> body) {
+        return run(stream, cells, body, null);
+    }
+
+    public <C, R> List<R> run(List<C> cells, Cell<C, R> body, SweepJournal<R> journal) {
+        return run(CELL_STREAM, cells, body, journal);
+    }
+
+    // Cells the journal already holds are taken from it without running; every other cell is logged
+    // to it as soon as it finishes.
+    public <C, R> List<R> run(int stream, List<C> cells, Cell<C, R> body, SweepJournal<R> journal) {
+        if (journal != null && journal.getSeed() != seed) {
+            throw new IllegalArgumentException("Journal seed " + journal.getSeed() + " != sweep seed " + seed);
+        }
+        int n = cells.size();
+        Object[] results = new Object[n];
+        CompletionService<Integer> done = new ExecutorCompletionService<>(pool);
+        List<Future<Integer>> futures = new ArrayList<>(n);
+        long start = System.nanoTime();
+
+        for (int i = 0; i < n; i++) {
+            int index = i;
+            R logged = journal == null ? null : journal.finished(index, cells.get(index));
+            if (logged != null) {
+                results[index] = logged;
+                continue;
+            }
+            futures.add(done.submit(() -> {
+                long t0 = System.nanoTime();
+                C cell = cells.get(index);
+                try {
+                    R result;
+                    try (Metrics.Span span = CELL.start()) {
+                        result = body.run(cell, seedFor(seed, stream, index));
+                    }
+                    if (journal != null) journal.record(index, cell, result);
+                    results[index] = result;
+                } catch (Exception e) {
+                    throw new IllegalStateException("Sweep cell " + cell + " failed", e);
+                }
+                System.out.printf("[sweep %s] %s done in %d ms%n", Thread.currentThread().getName(), cell,
+                        (System.nanoTime() - t0) / 1_000_000);
+                return index;
+            }));
+        }
+
+        int restored = n - futures.size();
+        if (restored > 0) System.out.printf("[sweep] %d/%d cells restored from the journal%n", restored, n);
+        try {
+            for (int k = restored + 1; k <= n; k++) {
+                done.take().get();
+                System.out.printf("[sweep] %d/%d cells finished (%.1f s)%n", k, n, (System.nanoTime() - start) / 1e9);
+            }
+        } catch (InterruptedException e) {
+            futures.forEach(f -> f.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Sweep interrupted", e);
+        } catch (ExecutionException e) {
+            futures.forEach(f -> f.cancel(true));
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException re) throw re;
+            if (cause instanceof Error err) throw err;
+            throw new IllegalStateException("Sweep cell failed", cause);
+        }
+
+        // Every future completed, so the writes to `results` happen-before this read.
+        List<R> ordered = new ArrayList<>(n);
+        for (Object r : results) {
+            @SuppressWarnings("unchecked")
+            R result = (R) r;
+            ordered.add(result);
+        }
+        return ordered;
+    }
+
+    @Override
+    public void close() {
+        pool.shutdownNow();
+    }
+}
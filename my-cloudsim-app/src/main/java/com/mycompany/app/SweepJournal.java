@@ -0,0 +1,198 @@
+package com.mycompany.app;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.CRC32C;
+
+// Append-only binary log of finished sweep cells, so a crashed sweep can be resumed without redoing
+// them. The header holds the sweep seed and cell count; each record is
+//
+//   [int index][int payload length][payload][int CRC32C of index and payload]
+//
+// with the cell's label and its encoded result as payload, forced to disk before the next cell is
+// logged. A record cut short by a crash fails its length or checksum test and is dropped on resume,
+// together with anything after it.
+public final class SweepJournal<R> implements AutoCloseable {
+
+    public interface Codec<R> {
+        void write(DataOutput out, R value) throws IOException;
+
+        R read(DataInput in) throws IOException;
+    }
+
+    private static final int MAGIC = 0x53575045;   // "SWPE"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 2 * Integer.BYTES + Long.BYTES + Integer.BYTES;
+
+    private final Path file;
+    private final long seed;
+    private final Codec<R> codec;
+    private final FileChannel channel;
+    private final Map<Integer, Entry<R>> finished = new HashMap<>();
+
+    record Entry<R>(String cell, R value) {}
+
+    private SweepJournal(Path file, long seed, int cellCount, Codec<R> codec, boolean resume) throws IOException {
+        this.file = file;
+        this.seed = seed;
+        this.codec = codec;
+        Files.createDirectories(file.toAbsolutePath().getParent());
+
+        if (resume && Files.exists(file)) {
+            channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            long end = load(cellCount);
+            if (end < channel.size()) {
+                System.out.printf("Dropping %d bytes of an unfinished record from %s%n", channel.size() - end, file);
+                channel.truncate(end);
+            }
+            channel.position(end);
+        } else {
+            channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).putInt(MAGIC).putInt(VERSION).putLong(seed).putInt(cellCount);
+            write(header.flip());
+        }
+    }
+
+    // With `resume`, an existing journal must belong to the same sweep (seed and cell count) and its
+    // finished cells are loaded; otherwise the journal starts empty.
+    public static <R> SweepJournal<R> open(Path file, long seed, int cellCount, Codec<R> codec, boolean resume) {
+        try {
+            return new SweepJournal<>(file, seed, cellCount, codec, resume);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open sweep journal " + file, e);
+        }
+    }
+
+    // -Dsweep.resume=true resumes the sweep given by -Dsweep.seed instead of starting it over.
+    public static boolean resumeRequested() {
+        if (!Boolean.getBoolean("sweep.resume")) return false;
+        if (System.getProperty("sweep.seed") == null) {
+            throw new IllegalArgumentException("-Dsweep.resume needs the -Dsweep.seed of the sweep to resume");
+        }
+        return true;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public int finishedCount() {
+        return finished.size();
+    }
+
+    // Result logged for cell `index`, or null. Throws if that slot holds a different cell, i.e. the
+    // grid changed since the journal was written.
+    public synchronized R finished(int index, Object cell) {
+        Entry<R> e = finished.get(index);
+        if (e == null) return null;
+        if (!e.cell().equals(String.valueOf(cell))) {
+            throw new IllegalStateException("Journal " + file + " has cell " + e.cell() + " at " + index + ", not " + cell);
+        }
+        return e.value();
+    }
+
+    public synchronized void record(int index, Object cell, R value) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeUTF(String.valueOf(cell));
+            codec.write(out, value);
+            out.flush();
+            byte[] payload = bytes.toByteArray();
+
+            ByteBuffer record = ByteBuffer.allocate(3 * Integer.BYTES + payload.length);
+            record.putInt(index).putInt(payload.length).put(payload).putInt(checksum(index, payload));
+            write(record.flip());
+            channel.force(false);
+            finished.put(index, new Entry<>(String.valueOf(cell), value));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot log cell " + cell + " to " + file, e);
+        }
+    }
+
+    // Checkpoint file for a cell's own state (e.g. a PSO swarm), in checkpoints/ next to the journal.
+    public Path checkpointFor(Object cell) {
+        return file.resolveSibling("checkpoints").resolve(String.valueOf(cell).replaceAll("[^A-Za-z0-9.-]+", "_") + ".ckpt");
+    }
+
+    @Override
+    public synchronized void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot close sweep journal " + file, e);
+        }
+    }
+
+    // Reads the header and every intact record; returns the offset just past the last one.
+    private long load(int cellCount) throws IOException {
+        long size = channel.size();
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        if (size < HEADER_BYTES || read(header, 0) < HEADER_BYTES || header.getInt(0) != MAGIC) {
+            throw new IOException("Not a sweep journal: " + file);
+        }
+        if (header.getInt(4) != VERSION) throw new IOException("Unsupported journal version " + header.getInt(4) + ": " + file);
+        long fileSeed = header.getLong(8);
+        int fileCells = header.getInt(16);
+        if (fileSeed != seed || fileCells != cellCount) {
+            throw new IllegalStateException("Journal " + file + " is for seed " + fileSeed + " with " + fileCells
+                    + " cells, not seed " + seed + " with " + cellCount);
+        }
+
+        long pos = HEADER_BYTES;
+        ByteBuffer head = ByteBuffer.allocate(2 * Integer.BYTES);
+        while (pos + head.capacity() <= size) {
+            head.clear();
+            read(head, pos);
+            int index = head.getInt(0), length = head.getInt(4);
+            if (index < 0 || index >= cellCount || length < 0 || pos + head.capacity() + length + Integer.BYTES > size) break;
+
+            ByteBuffer body = ByteBuffer.allocate(length + Integer.BYTES);
+            read(body, pos + head.capacity());
+            byte[] payload = new byte[length];
+            body.get(0, payload);
+            if (body.getInt(length) != checksum(index, payload)) break;
+
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+            String cell = in.readUTF();
+            finished.put(index, new Entry<>(cell, codec.read(in)));
+            pos += head.capacity() + length + Integer.BYTES;
+        }
+        return pos;
+    }
+
+    private int read(ByteBuffer into, long position) throws IOException {
+        int total = 0;
+        while (into.hasRemaining()) {
+            int n = channel.read(into, position + total);
+            if (n < 0) break;
+            total += n;
+        }
+        return total;
+    }
+
+    private void write(ByteBuffer buf) throws IOException {
+        while (buf.hasRemaining()) channel.write(buf);
+    }
+
+    private static int checksum(int index, byte[] payload) {
+        CRC32C crc = new CRC32C();
+        crc.update(ByteBuffer.allocate(Integer.BYTES).putInt(0, index));
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+}
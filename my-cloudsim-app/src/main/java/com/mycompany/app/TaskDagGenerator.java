@@ -7,56 +7,55 @@ import org.cloudbus.cloudsim.brokers.DatacenterBrokerSimple;
 import org.cloudbus.cloudsim.vms.Vm;
 
 import java.util.*;
+import java.util.random.RandomGenerator;
 
 public class TaskDagGenerator {
 
+    // Deadlines come from the analytical model for the 20-VM pool the simulated model used; pass
+    // DeadlineModel.SIMULATED to reproduce runs made before it existed.
     public static List<App.TaskNode> generateRandomDAG(int numTasks) {
-        List<App.TaskNode> dag = new ArrayList<>();
-        Random rand = new Random();
-
-        for (int i = 0; i < numTasks; i++) {
-            long length = 8000 + (i * 10);
-            Cloudlet cl = new CloudletSimple(length, 2);
-            cl.setSizes(1024);
-            App.TaskNode task = new App.TaskNode(i, cl);
-            dag.add(task);
-        }
-
-        int minEdges = numTasks / 2;
-        int maxEdges = numTasks * (numTasks - 1) / 2;
-        int edgeCount = rand.nextInt(maxEdges - minEdges + 1) + minEdges;
+        return generateRandomDAG(numTasks, DeadlineModel.analytical(20));
+    }
 
-        Set<String> addedEdges = new HashSet<>();
-        int added = 0;
+    public static List<App.TaskNode> generateRandomDAG(int numTasks, DeadlineModel deadlines) {
+        return generateRandomDAG(numTasks, deadlines, RandomStreams.nextSeed());
+    }
 
-        while (added < edgeCount) {
-            int parent = rand.nextInt(numTasks - 1);
-            int child = rand.nextInt(numTasks - parent - 1) + parent + 1;
+    // Structure and deadlines are reproducible from the seed; a seeded slack model keeps its own seed.
+    // The edge count is uniform up to n(n-1)/2, so the DAG is usually dense, on the order of n²
+    // edges: fine for the grid's task counts, not for 100k-task workflows, which want DagGenerator.
+    public static List<App.TaskNode> generateRandomDAG(int numTasks, DeadlineModel deadlines, long seed) {
+        Random rand = new Random(seed);
 
-            String edgeKey = parent + "," + child;
-            if (addedEdges.contains(edgeKey)) continue;
+        long minEdges = numTasks / 2;
+        long maxEdges = DagGenerator.maxEdges(numTasks);
+        long edgeCount = rand.nextLong(minEdges, maxEdges + 1);
 
-            App.TaskNode parentNode = dag.get(parent);
-            App.TaskNode childNode = dag.get(child);
+        List<App.TaskNode> dag = DagGenerator.builder()
+                .tasks(numTasks)
+                .randomEdges(edgeCount)
+                .seed(rand.nextLong())
+                .build()
+                .generate();
 
-            childNode.addDependency(parentNode);
-            addedEdges.add(edgeKey);
-            added++;
-        }
-
-        assignRealisticDeadlines(dag);
+        deadlines.assign(dag, rand.nextLong());
 
         return dag;
     }
 
     public static void assignRealisticDeadlines(List<App.TaskNode> dag) {
+        assignRealisticDeadlines(dag, RandomStreams.nextSeed());
+    }
+
+    public static void assignRealisticDeadlines(List<App.TaskNode> dag, long seed) {
         CloudSim sim = new CloudSim();
-        var datacenter = SimulationUtils.createSimpleDatacenter(sim);
+        SimulationEnvironment env = SimulationEnvironment.of(20, false);
+        var datacenter = env.createDatacenter(sim);
         var broker = new DatacenterBrokerSimple(sim);
-        List<Vm> vmList = SimulationUtils.createVmList(20);
+        List<Vm> vmList = env.createVms();
         broker.submitVmList(vmList);
 
-        Random rand = new Random();
+        RandomGenerator rand = RandomStreams.random(seed);
         for (App.TaskNode node : dag) {
             Vm selectedVm = vmList.get(rand.nextInt(vmList.size()));
             node.cloudlet.setVm(selectedVm);
@@ -72,6 +71,12 @@ public class TaskDagGenerator {
     }
 
     public static List<App.TaskNode> deepCopyDag(List<App.TaskNode> original) {
+        try (Metrics.Span span = DagRun.COPY.start()) {
+            return copyNodes(original);
+        }
+    }
+
+    private static List<App.TaskNode> copyNodes(List<App.TaskNode> original) {
         Map<Integer, App.TaskNode> copyMap = new HashMap<>();
         for (App.TaskNode node : original) {
             Cloudlet cl = new CloudletSimple(node.cloudlet.getLength(), node.cloudlet.getNumberOfPes());
@@ -87,6 +92,8 @@ public class TaskDagGenerator {
             }
         }
 
-        return new ArrayList<>(copyMap.values());
+        List<App.TaskNode> copy = new ArrayList<>(copyMap.values());
+        copy.sort(Comparator.comparingInt(node -> node.id));
+        return copy;
     }
 }
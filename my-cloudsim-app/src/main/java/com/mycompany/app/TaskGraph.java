@@ -0,0 +1,71 @@
+package com.mycompany.app;
+
+import java.util.List;
+
+// Immutable, array-backed view of a task DAG for hot loops. Tasks are indexed by TaskNode.id and the
+// edges are stored CSR-style: the parents of t are parents[parentStart[t] .. parentStart[t + 1]),
+// and likewise for children.
+public final class TaskGraph {
+
+    public final int taskCount;
+    public final double[] length;
+    public final int[] pes;
+    public final double[] deadline;
+    public final int[] parentStart, parents;
+    public final int[] childStart, children;
+
+    volatile GraphAnalysis analysis;  // length-weighted analysis, set by GraphAnalysis.of
+
+    private TaskGraph(int taskCount, double[] length, int[] pes, double[] deadline,
+                      int[] parentStart, int[] parents, int[] childStart, int[] children) {
+        this.taskCount = taskCount;
+        this.length = length;
+        this.pes = pes;
+        this.deadline = deadline;
+        this.parentStart = parentStart;
+        this.parents = parents;
+        this.childStart = childStart;
+        this.children = children;
+    }
+
+    public static TaskGraph of(List<App.TaskNode> dag) {
+        int n = dag.size();
+        double[] length = new double[n];
+        int[] pes = new int[n];
+        double[] deadline = new double[n];
+        int[] parentStart = new int[n + 1];
+        int[] childStart = new int[n + 1];
+
+        App.TaskNode[] byId = new App.TaskNode[n];
+        for (App.TaskNode node : dag) {
+            if (node.id < 0 || node.id >= n || byId[node.id] != null) {
+                throw new IllegalArgumentException("Task ids must be unique and within [0, " + n + "): " + node.id);
+            }
+            byId[node.id] = node;
+        }
+
+        for (int t = 0; t < n; t++) {
+            App.TaskNode node = byId[t];
+            length[t] = node.cloudlet.getLength();
+            pes[t] = (int) node.cloudlet.getNumberOfPes();
+            deadline[t] = node.deadline;
+            parentStart[t + 1] = parentStart[t] + node.parents.size();
+            childStart[t + 1] = childStart[t] + node.children.size();
+        }
+
+        int[] parents = new int[parentStart[n]];
+        int[] children = new int[childStart[n]];
+        for (int t = 0; t < n; t++) {
+            int k = parentStart[t];
+            for (App.TaskNode p : byId[t].parents) parents[k++] = p.id;
+            k = childStart[t];
+            for (App.TaskNode c : byId[t].children) children[k++] = c.id;
+        }
+
+        return new TaskGraph(n, length, pes, deadline, parentStart, parents, childStart, children);
+    }
+
+    public int inDegree(int t) {
+        return parentStart[t + 1] - parentStart[t];
+    }
+}
@@ -0,0 +1,62 @@
+package com.mycompany.app;
+
+// One PSO move for a single task: decays and reinforces the task's velocity row, turns it into
+// softmax weights and roulette-samples the task's new VM. Only the pBest and gBest lanes receive
+// the cognitive and social pulls, so one random factor each is enough per task.
+public interface VelocityKernel {
+
+    // `row` is the offset of the task's row in `velocity`; gBestVm is -1 before the first gBest.
+    // Returns the sampled VM, or -1 if rounding left the roulette short (the task then stays put).
+    int update(double[] velocity, int row, int vmCount, int pBestVm, int gBestVm,
+               double w, double c1, double c2, double chi,
+               double r1, double r2, double u, double[] weights);
+
+    static VelocityKernel scalar() {
+        return Scalar.INSTANCE;
+    }
+
+    // The Vector API kernel when it was compiled in (the vector profile) and jdk.incubator.vector is
+    // loaded (run with --add-modules jdk.incubator.vector), the scalar kernel otherwise.
+    static VelocityKernel vectorized() {
+        if (!vectorAvailable()) return scalar();
+        try {
+            return (VelocityKernel) Class.forName("com.mycompany.app.VectorVelocityKernel")
+                    .getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return scalar();
+        }
+    }
+
+    static boolean vectorAvailable() {
+        return ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+    }
+
+    final class Scalar implements VelocityKernel {
+        static final Scalar INSTANCE = new Scalar();
+
+        private Scalar() {}
+
+        @Override
+        public int update(double[] velocity, int row, int vmCount, int pBestVm, int gBestVm,
+                          double w, double c1, double c2, double chi,
+                          double r1, double r2, double u, double[] weights) {
+            double decay = chi * w;
+            for (int v = 0; v < vmCount; v++) velocity[row + v] *= decay;
+            velocity[row + pBestVm] += chi * c1 * r1;
+            if (gBestVm >= 0) velocity[row + gBestVm] += chi * c2 * r2;
+
+            double sum = 0;
+            for (int v = 0; v < vmCount; v++) {
+                weights[v] = Math.exp(velocity[row + v]);
+                sum += weights[v];
+            }
+
+            double target = u * sum, cum = 0;
+            for (int v = 0; v < vmCount; v++) {
+                cum += weights[v];
+                if (target <= cum) return v;
+            }
+            return -1;
+        }
+    }
+}
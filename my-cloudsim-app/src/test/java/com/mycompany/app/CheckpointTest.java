@@ -0,0 +1,206 @@
+package com.mycompany.app;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+public class CheckpointTest {
+
+    private static final int VMS = 4;
+
+    private static TaskGraph graph() {
+        List<App.TaskNode> dag = DagGenerator.builder().tasks(80).random(0.05).seed(5).build().generate();
+        DeadlineModel.analytical(VMS).assign(dag);
+        return TaskGraph.of(dag);
+    }
+
+    private static PSOConfig.Builder config(Path checkpoint) {
+        return PSOConfig.builder().swarmSize(16).maxIterations(30).seed(11)
+                .progress(ProgressMonitor.off()).checkpoint(checkpoint, 5);
+    }
+
+    @Test
+    public void splitMixMatchesSplittableRandom() {
+        SplittableRandom jdk = new SplittableRandom(99).split();
+        SplitMixRandom ours = new SplitMixRandom(99).split();
+        for (int i = 0; i < 10_000; i++) {
+            assertEquals(jdk.nextInt(1 + i % 37), ours.nextInt(1 + i % 37));
+            assertEquals(jdk.nextDouble(-1, 1), ours.nextDouble(-1, 1), 0);
+        }
+        SplitMixRandom restored = new SplitMixRandom(ours.seed(), ours.gamma());
+        assertEquals(ours.nextLong(), restored.nextLong());
+    }
+
+    @Test
+    public void resumedRunMatchesUninterruptedRun() throws Exception {
+        TaskGraph graph = graph();
+        Path dir = Files.createTempDirectory("pso-checkpoint");
+
+        PSOScheduler reference = new PSOScheduler(config(dir.resolve("reference.ckpt")).build());
+        DagRun expected = reference.schedule(graph, VMS);
+        assertFalse("a finished run removes its checkpoint", Files.exists(dir.resolve("reference.ckpt")));
+
+        // Dies during iteration 17, after the checkpoint of iteration 15.
+        Path file = dir.resolve("crashed.ckpt");
+        PSOScheduler crashed = new PSOScheduler(config(file).fitnessListener((iter, f) -> {
+            if (iter == 16) throw new IllegalStateException("simulated crash");
+        }).build());
+        try {
+            crashed.schedule(graph, VMS);
+            fail("expected the simulated crash");
+        } catch (IllegalStateException e) {
+            assertEquals("simulated crash", e.getMessage());
+        }
+        assertTrue(Files.exists(file));
+
+        List<Integer> resumedIterations = new ArrayList<>();
+        PSOScheduler resumed = new PSOScheduler(config(file).resume(true)
+                .fitnessListener((iter, f) -> resumedIterations.add(iter)).build());
+        DagRun actual = resumed.schedule(graph, VMS);
+
+        // The restored iterations are replayed to the listener before the run goes on.
+        for (int i = 0; i < resumedIterations.size(); i++) assertEquals(i, (int) resumedIterations.get(i));
+        assertEquals(15, resumed.getRunStats().resumedAt());
+        assertEquals(0, reference.getRunStats().resumedAt());
+        assertEquals(reference.getFitnessHistory(), resumed.getFitnessHistory());
+        assertEquals(reference.getRunStats().evaluations(), resumed.getRunStats().evaluations());
+        assertArrayEquals(expected.preferredVm, actual.preferredVm);
+        assertArrayEquals(expected.executionOrder, actual.executionOrder);
+    }
+
+    @Test
+    public void resumedRunCompletesTheFitnessCurveOfItsSink() throws Exception {
+        TaskGraph graph = graph();
+        Path dir = Files.createTempDirectory("pso-sink");
+        Path file = dir.resolve("run.ckpt");
+
+        // The killed run's sink is never closed, so the points it buffered are lost with it.
+        ResultSink killed = ResultSink.open(dir, ResultSink.Format.CSV, false);
+        try {
+            new PSOScheduler(config(file).fitnessListener((iter, f) -> {
+                if (iter == 17) throw new IllegalStateException("simulated crash");
+                killed.fitness("cell", iter, f);
+            }).build()).schedule(graph, VMS);
+            fail("expected the simulated crash");
+        } catch (IllegalStateException expected) {
+            // checkpoint of iteration 15 is on disk
+        }
+
+        PSOScheduler resumed;
+        try (ResultSink sink = ResultSink.open(dir, ResultSink.Format.CSV, true)) {
+            resumed = new PSOScheduler(config(file).resume(true)
+                    .fitnessListener((iter, f) -> sink.fitness("cell", iter, f)).build());
+            resumed.schedule(graph, VMS);
+        }
+
+        List<Double> curve = FileResultSink.readFitness(dir).get("cell");
+        assertEquals(resumed.getFitnessHistory(), curve);
+        for (double f : curve) assertFalse(Double.isNaN(f));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void checkpointOfAnotherConfigurationIsRejected() throws Exception {
+        TaskGraph graph = graph();
+        Path file = Files.createTempDirectory("pso-checkpoint").resolve("run.ckpt");
+        try {
+            new PSOScheduler(config(file).fitnessListener((iter, f) -> {
+                if (iter == 6) throw new IllegalArgumentException("stop");
+            }).build()).schedule(graph, VMS);
+        } catch (IllegalArgumentException expected) {
+            // checkpoint of iteration 5 is on disk
+        }
+        new PSOScheduler(config(file).seed(12).resume(true).build()).schedule(graph, VMS);
+    }
+
+    @Test
+    public void corruptCheckpointFailsItsChecksum() throws Exception {
+        Path file = Files.createTempDirectory("checkpoint-file").resolve("data.ckpt");
+        double[] values = new double[300_000];
+        for (int i = 0; i < values.length; i++) values[i] = i * 0.5;
+        try (CheckpointFile.Writer out = new CheckpointFile.Writer(file, 1, 1)) {
+            out.putLong(42);
+            out.putDoubles(values);
+            out.putInts(new int[] {3, 1, 2});
+            out.commit();
+        }
+        try (CheckpointFile.Reader in = new CheckpointFile.Reader(file, 1, 1)) {
+            assertEquals(42, in.getLong());
+            assertArrayEquals(values, in.getDoubles(), 0);
+            assertArrayEquals(new int[] {3, 1, 2}, in.getInts());
+        }
+
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            ch.write(ByteBuffer.wrap(new byte[] {7}), 1_000_000);
+        }
+        try {
+            new CheckpointFile.Reader(file, 1, 1).close();
+            fail("expected a checksum failure");
+        } catch (IOException e) {
+            assertTrue(e.getMessage().contains("checksum"));
+        }
+    }
+
+    @Test
+    public void journalSkipsFinishedCellsAndDropsATornRecord() throws Exception {
+        Path file = Files.createTempDirectory("sweep-journal").resolve("sweep.journal");
+        List<String> cells = List.of("a", "b", "c", "d", "e", "f");
+        SweepJournal.Codec<Long> codec = new SweepJournal.Codec<>() {
+            @Override
+            public void write(java.io.DataOutput out, Long value) throws IOException {
+                out.writeLong(value);
+            }
+
+            @Override
+            public Long read(java.io.DataInput in) throws IOException {
+                return in.readLong();
+            }
+        };
+
+        try (SweepExecutor sweep = new SweepExecutor(1, 3);
+             SweepJournal<Long> journal = SweepJournal.open(file, 3, cells.size(), codec, false)) {
+            sweep.run(cells, (cell, seed) -> {
+                if (cell.equals("e")) throw new IllegalArgumentException("crash");
+                return seed;
+            }, journal);
+            fail("expected the crash");
+        } catch (IllegalStateException expected) {
+            // cells a-d are logged, f too if it started before the cancellation
+        }
+        // Half-written record of a later cell.
+        Files.write(file, new byte[] {0, 0, 0, 5, 0, 0, 0, 40, 1, 2}, StandardOpenOption.APPEND);
+
+        AtomicInteger ran = new AtomicInteger();
+        int logged;
+        List<Long> seeds;
+        try (SweepExecutor sweep = new SweepExecutor(2, 3);
+             SweepJournal<Long> journal = SweepJournal.open(file, 3, cells.size(), codec, true)) {
+            logged = journal.finishedCount();
+            assertTrue(logged == 4 || logged == 5);
+            seeds = sweep.run(cells, (cell, seed) -> {
+                ran.incrementAndGet();
+                return seed;
+            }, journal);
+        }
+        assertEquals(cells.size() - logged, ran.get());
+        for (int i = 0; i < cells.size(); i++) assertEquals(SweepExecutor.seedFor(3, i), (long) seeds.get(i));
+
+        try (SweepJournal<Long> journal = SweepJournal.open(file, 3, cells.size(), codec, true)) {
+            assertEquals(cells.size(), journal.finishedCount());
+        }
+    }
+}
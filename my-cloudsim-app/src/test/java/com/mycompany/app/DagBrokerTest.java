@@ -0,0 +1,73 @@
+package com.mycompany.app;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+
+import org.cloudbus.cloudsim.cloudlets.Cloudlet;
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.vms.Vm;
+import org.junit.Test;
+
+public class DagBrokerTest {
+
+    @Test
+    public void releasesEachTaskOnceItsLastParentFinishes() {
+        TaskGraph g = TaskGraph.of(DagGenerator.builder().tasks(400).layered(12, 0.05).seed(6).build().generate());
+        DagRun run = DagRun.of(g);
+        int[] order = SingleSimulationRunner.dispatchOrder(run);
+        int[] rank = new int[g.taskCount];
+        for (int k = 0; k < order.length; k++) rank[order[k]] = k;
+        DagBroker broker = new DagBroker(new CloudSim(), run, order);
+
+        boolean[] finished = new boolean[g.taskCount];
+        Deque<Integer> running = new ArrayDeque<>();
+        for (int t = 0; t < g.taskCount; t++) if (g.parentStart[t + 1] == g.parentStart[t]) running.add(t);
+        int released = running.size();
+
+        // Finish tasks in LIFO order, far from the dispatch order, to stress the counters.
+        while (!running.isEmpty()) {
+            int task = running.pollLast();
+            finished[task] = true;
+            int[] ready = broker.release(task);
+            for (int i = 0; i < ready.length; i++) {
+                int child = ready[i];
+                for (int k = g.parentStart[child]; k < g.parentStart[child + 1]; k++) assertTrue(finished[g.parents[k]]);
+                if (i > 0) assertTrue(rank[ready[i - 1]] < rank[child]);
+                running.add(child);
+            }
+            released += ready.length;
+        }
+        assertEquals(g.taskCount, released);
+        for (boolean f : finished) assertTrue(f);
+    }
+
+    @Test
+    public void simulationRunsEveryCloudletAfterItsParents() {
+        TaskGraph g = TaskGraph.of(DagGenerator.builder().tasks(300).layered(10, 0.05).seed(2).build().generate());
+        DagRun run = DagRun.of(g);
+        int[] order = SingleSimulationRunner.dispatchOrder(run);
+        SimulationEnvironment env = SimulationEnvironment.of(6, false);
+        CloudSim simulation = new CloudSim();
+        env.createDatacenter(simulation);
+        DagBroker broker = new DagBroker(simulation, run, order);
+        List<Vm> vms = env.createVms();
+        broker.submitVmList(vms);
+        for (int k = 0; k < order.length; k++) run.cloudlets[order[k]].setVm(vms.get(k % vms.size()));
+        broker.submitDag();
+        simulation.start();
+
+        assertEquals(g.taskCount, broker.getCloudletFinishedList().size());
+        for (int t = 0; t < g.taskCount; t++) {
+            Cloudlet cloudlet = run.cloudlets[t];
+            assertTrue(cloudlet.getFinishTime() >= 0);
+            for (int k = g.parentStart[t]; k < g.parentStart[t + 1]; k++) {
+                assertTrue(cloudlet.getExecStartTime() >= run.cloudlets[g.parents[k]].getFinishTime());
+            }
+        }
+        assertTrue(broker.getPeakInFlight() < g.taskCount);
+    }
+}
@@ -0,0 +1,71 @@
+package com.mycompany.app;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+
+public class DagGeneratorTest {
+
+    @Test
+    public void randomEdgesAreExactDistinctAndForward() {
+        int tasks = 60;
+        long max = DagGenerator.maxEdges(tasks);
+        // Below and above half of all pairs, i.e. both the direct and the complement sampling.
+        for (long edges : new long[] {0, 30, max / 2, max / 2 + 1, max - 3, max}) {
+            List<App.TaskNode> dag = DagGenerator.builder().tasks(tasks).randomEdges(edges).seed(1).build().generate();
+            assertEquals(edges, edgeSet(dag).size());
+            assertEquals(edges, dag.stream().mapToLong(n -> n.parents.size()).sum());
+        }
+    }
+
+    @Test
+    public void sameSeedGivesSameDag() {
+        DagGenerator.Builder b = DagGenerator.builder().tasks(500).random(0.02).seed(99);
+        assertEquals(edgeSet(b.build().generate()), edgeSet(b.build().generate()));
+        assertFalse(edgeSet(b.build().generate()).equals(edgeSet(b.seed(100).build().generate())));
+    }
+
+    @Test
+    public void layeredLinksOnlyAdjacentLayersAndLeavesNoOrphans() {
+        int tasks = 1000, layers = 20, width = tasks / layers;
+        List<App.TaskNode> dag = DagGenerator.builder().tasks(tasks).layered(layers, 0.01).seed(3).build().generate();
+        for (App.TaskNode node : dag) {
+            if (node.id < width) {
+                assertTrue(node.parents.isEmpty());
+                continue;
+            }
+            assertFalse(node.parents.isEmpty());
+            for (App.TaskNode parent : node.parents) assertEquals(node.id / width - 1, parent.id / width);
+        }
+    }
+
+    @Test
+    public void forkJoinBoundsFanOutAndJoinsEveryBranch() {
+        List<App.TaskNode> dag = DagGenerator.builder().tasks(400).forkJoin(5).seed(4).build().generate();
+        int sinks = 0;
+        for (App.TaskNode node : dag) {
+            assertTrue(node.children.size() <= 5);
+            if (node.id > 0) assertFalse(node.parents.isEmpty());
+            if (node.children.isEmpty()) sinks++;
+        }
+        // Only the last block may end without a join.
+        assertTrue(sinks <= 5);
+    }
+
+    private static Set<Long> edgeSet(List<App.TaskNode> dag) {
+        Set<Long> edges = new HashSet<>();
+        for (App.TaskNode node : dag) {
+            for (App.TaskNode parent : node.parents) {
+                assertTrue(parent.id < node.id);
+                assertTrue(edges.add(DagGenerator.pack(parent.id, node.id)));
+            }
+        }
+        return edges;
+    }
+}
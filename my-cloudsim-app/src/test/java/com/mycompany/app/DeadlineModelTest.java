@@ -0,0 +1,80 @@
+package com.mycompany.app;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.cloudbus.cloudsim.cloudlets.CloudletSimple;
+import org.junit.Test;
+
+public class DeadlineModelTest {
+
+    // Default VMs: 1000 MIPS, 2 PEs; the tasks below ask for 2 PEs, so exec = length / 1000.
+
+    @Test
+    public void chainDeadlinesAreCumulativeExecutionTimes() {
+        List<App.TaskNode> dag = tasks(2000, 3000, 5000);
+        dag.get(1).addDependency(dag.get(0));
+        dag.get(2).addDependency(dag.get(1));
+
+        DeadlineModel.analytical(4).assign(dag);
+        assertEquals(2.0, dag.get(0).deadline, 1e-9);
+        assertEquals(5.0, dag.get(1).deadline, 1e-9);
+        assertEquals(10.0, dag.get(2).deadline, 1e-9);
+    }
+
+    @Test
+    public void independentTasksShareTheLoadBound() {
+        List<App.TaskNode> dag = tasks(4000, 4000, 4000, 4000);
+        DeadlineModel.analytical(2).assign(dag);
+        // 16 s of work over 2 VMs dominates the 4 s critical path.
+        for (App.TaskNode node : dag) assertEquals(8.0, node.deadline, 1e-9);
+    }
+
+    @Test
+    public void shortBranchGetsRoomRelativeToItsPath() {
+        // 0 -> 1 -> 3 is 1 + 8 + 1 s long, 0 -> 2 -> 3 only 1 + 2 + 1 s.
+        List<App.TaskNode> dag = tasks(1000, 8000, 2000, 1000);
+        dag.get(1).addDependency(dag.get(0));
+        dag.get(2).addDependency(dag.get(0));
+        dag.get(3).addDependency(dag.get(1));
+        dag.get(3).addDependency(dag.get(2));
+
+        DeadlineModel.analytical(4).assign(dag);
+        assertEquals(9.0, dag.get(1).deadline, 1e-9);
+        assertEquals(10.0 * 3 / 4, dag.get(2).deadline, 1e-9);
+        assertEquals(10.0, dag.get(3).deadline, 1e-9);
+    }
+
+    @Test
+    public void slackStaysInRangeAndFollowsTheSeed() {
+        List<App.TaskNode> a = DagGenerator.builder().tasks(300).layered(10, 0.1).seed(5).build().generate();
+        List<App.TaskNode> b = DagGenerator.builder().tasks(300).layered(10, 0.1).seed(5).build().generate();
+        List<App.TaskNode> base = DagGenerator.builder().tasks(300).layered(10, 0.1).seed(5).build().generate();
+        DeadlineModel.uniformSlack(20, 0.1, 0.5, 9).assign(a);
+        DeadlineModel.uniformSlack(20, 0.1, 0.5, 9).assign(b);
+        DeadlineModel.analytical(20).assign(base);
+
+        for (int t = 0; t < 300; t++) {
+            assertEquals(a.get(t).deadline, b.get(t).deadline, 0);
+            double ratio = a.get(t).deadline / base.get(t).deadline;
+            assertTrue(ratio >= 1.1 - 1e-9 && ratio <= 1.5 + 1e-9);
+        }
+    }
+
+    @Test
+    public void handlesLargeDeepDags() {
+        List<App.TaskNode> dag = DagGenerator.builder().tasks(100_000).forkJoin(3).seed(1).build().generate();
+        DeadlineModel.analytical(20).assign(dag);
+        App.TaskNode last = dag.get(dag.size() - 1);
+        assertTrue(last.deadline > dag.get(0).deadline);
+    }
+
+    private static List<App.TaskNode> tasks(long... lengths) {
+        List<App.TaskNode> dag = new ArrayList<>();
+        for (int t = 0; t < lengths.length; t++) dag.add(new App.TaskNode(t, new CloudletSimple(lengths[t], 2)));
+        return dag;
+    }
+}
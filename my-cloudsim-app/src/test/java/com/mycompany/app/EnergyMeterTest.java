@@ -0,0 +1,43 @@
+package com.mycompany.app;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.List;
+import java.util.function.DoubleUnaryOperator;
+
+import org.junit.Test;
+
+public class EnergyMeterTest {
+
+    @Test
+    public void integratesPiecewiseConstantUtilisation() {
+        DoubleUnaryOperator linear = u -> 100 + 150 * u;
+        EnergyMeter meter = new EnergyMeter(new double[] {16000, 16000}, new DoubleUnaryOperator[] {linear, linear},
+                new double[] {2000, 2000, 2000});
+
+        // VMs 0 and 1 share host 0, VM 2 is alone on host 1; nothing is placed before t = 1.
+        int[] placement = {0, 0, 1};
+        meter.sample(1, placement, new double[] {1, 0.5, 0});
+        meter.sample(3, placement, new double[] {0, 1, 1});
+        EnergyMeter.Breakdown energy = meter.finish(5);
+
+        // host 0: idle for 1 s, then utilisation 0.1875 for 2 s and 0.125 for 2 s.
+        assertEquals(List.of(100 + 128.125 * 2 + 118.75 * 2, 100 + 100 * 2 + 118.75 * 2), energy.hosts());
+        assertEquals(593.75 + 537.5, energy.total(), 1e-9);
+        // Power above idle, split by each VM's share of its host.
+        assertEquals(37.5, energy.vms().get(0), 1e-9);
+        assertEquals(18.75 + 37.5, energy.vms().get(1), 1e-9);
+        assertEquals(37.5, energy.vms().get(2), 1e-9);
+    }
+
+    @Test
+    public void repeatedTicksAtOneTimeAddNothing() {
+        EnergyMeter meter = new EnergyMeter(new double[] {1000}, new DoubleUnaryOperator[] {u -> 10 + 90 * u},
+                new double[] {1000});
+        meter.sample(2, new int[] {0}, new double[] {1});
+        meter.sample(2, new int[] {0}, new double[] {0.5});
+        EnergyMeter.Breakdown energy = meter.finish(4);
+        assertEquals(20 + 55 * 2, energy.total(), 1e-9);
+        assertEquals(45 * 2, energy.vms().get(0), 1e-9);
+    }
+}
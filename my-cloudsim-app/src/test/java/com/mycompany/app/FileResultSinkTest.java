@@ -0,0 +1,81 @@
+package com.mycompany.app;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+public class FileResultSinkTest {
+
+    @Test
+    public void resultsAndFitnessRoundTripInBothFormats() throws Exception {
+        List<ResultSink.Row> rows = List.of(
+                new ResultSink.Row("CPOP tasks=100 edge=10", "CPOP", 100, 10, 812.5, 1.25e6, 0.125, 0.875, 4031.0),
+                new ResultSink.Row("PSO \"quoted\", tasks=100", "PSO", 100, 10, 640.0, 9.5e5, 0, 1, Double.NaN));
+
+        for (ResultSink.Format format : ResultSink.Format.values()) {
+            Path dir = Files.createTempDirectory("results-" + format);
+            try (ResultSink sink = ResultSink.open(dir, format)) {
+                for (int i = 0; i < 3; i++) sink.fitness("PSO \"quoted\", tasks=100", i, 10.0 - i);
+                for (ResultSink.Row row : rows) sink.result(row);
+                // Rows are on disk before the sink is closed.
+                assertEquals(rows.size(), FileResultSink.readResults(dir).size());
+            }
+
+            assertEquals(format.toString(), rows, FileResultSink.readResults(dir));
+            Map<String, List<Double>> fitness = FileResultSink.readFitness(dir);
+            assertEquals(List.of(10.0, 9.0, 8.0), fitness.get("PSO \"quoted\", tasks=100"));
+        }
+    }
+
+    @Test
+    public void concurrentCellsWriteWholeLines() throws Exception {
+        Path dir = Files.createTempDirectory("results-concurrent");
+        List<Integer> cells = new ArrayList<>();
+        for (int i = 0; i < 8; i++) cells.add(i);
+
+        try (ResultSink sink = ResultSink.open(dir, ResultSink.Format.JSONL);
+             SweepExecutor sweep = new SweepExecutor(4, 7)) {
+            sweep.run(cells, (cell, seed) -> {
+                for (int iter = 0; iter < 200; iter++) sink.fitness("run-" + cell, iter, cell * 1000 + iter);
+                sink.result(new ResultSink.Row("run-" + cell, "PSO", 100, cell, cell, 0, 0, 1, 0));
+                return cell;
+            });
+        }
+
+        assertEquals(cells.size(), FileResultSink.readResults(dir).size());
+        Map<String, List<Double>> fitness = FileResultSink.readFitness(dir);
+        assertEquals(cells.size(), fitness.size());
+        for (int cell : cells) {
+            List<Double> curve = fitness.get("run-" + cell);
+            assertEquals(200, curve.size());
+            for (int iter = 0; iter < 200; iter++) assertEquals(cell * 1000 + iter, curve.get(iter), 0);
+        }
+    }
+
+    @Test
+    public void rendersPngChartsFromTheFiles() throws Exception {
+        Path dir = Files.createTempDirectory("results-charts");
+        try (ResultSink sink = ResultSink.open(dir, ResultSink.Format.CSV)) {
+            for (int tasks : new int[] {100, 200}) {
+                for (String algorithm : List.of("CPOP", "PSO")) {
+                    sink.result(new ResultSink.Row(algorithm + " " + tasks, algorithm, tasks, 10, tasks * 2.0, tasks * 5.0, 0.1, 0.9, 0));
+                }
+            }
+            for (int i = 0; i < 5; i++) sink.fitness("PSO 100", i, 5 - i);
+        }
+
+        List<Path> files = ChartRenderer.render(dir, "png");
+        assertEquals(ChartRenderer.METRICS.size() + 1, files.size());
+        for (Path file : files) {
+            assertTrue(file + " is empty", Files.size(file) > 0);
+            assertTrue(file.getParent().endsWith("charts"));
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.mycompany.app;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.cloudbus.cloudsim.cloudlets.CloudletSimple;
+import org.junit.Test;
+
+public class GraphAnalysisTest {
+
+    @Test
+    public void ranksMatchTheNodeWalk() {
+        List<App.TaskNode> dag = DagGenerator.builder().tasks(2000).random(0.005).seed(8).build().generate();
+        GraphAnalysis analysis = GraphAnalysis.of(TaskGraph.of(dag));
+
+        double criticalPath = 0;
+        for (App.TaskNode node : dag) {
+            assertEquals(SimulationUtils.computeRankU(node), analysis.rankU[node.id], 0);
+            assertEquals(SimulationUtils.computeRankD(node), analysis.rankD[node.id], 0);
+            criticalPath = Math.max(criticalPath, node.rankU);
+        }
+        assertEquals(criticalPath, analysis.criticalPathLength, 0);
+    }
+
+    @Test
+    public void orderIsTopologicalAndGroupedByLevel() {
+        List<App.TaskNode> dag = DagGenerator.builder().tasks(1500).layered(30, 0.02).seed(2).build().generate();
+        GraphAnalysis analysis = GraphAnalysis.of(TaskGraph.of(dag));
+
+        assertEquals(30, analysis.levelCount());
+        int[] position = new int[dag.size()];
+        for (int k = 0; k < analysis.order.length; k++) position[analysis.order[k]] = k;
+        for (int l = 0; l < analysis.levelCount(); l++) {
+            for (int k = analysis.levelStart[l]; k < analysis.levelStart[l + 1]; k++) assertEquals(l, analysis.level[analysis.order[k]]);
+        }
+        for (App.TaskNode node : dag) {
+            for (App.TaskNode parent : node.parents) {
+                assertTrue(position[parent.id] < position[node.id]);
+                assertTrue(analysis.level[parent.id] < analysis.level[node.id]);
+            }
+        }
+    }
+
+    @Test
+    public void criticalPathFollowsTheHeaviestChain() {
+        // 0 -> 1 -> 3 weighs 1000 + 5000 + 1000, 0 -> 2 -> 3 only 1000 + 2000 + 1000.
+        List<App.TaskNode> dag = new ArrayList<>();
+        for (long length : new long[] {1000, 5000, 2000, 1000}) dag.add(new App.TaskNode(dag.size(), new CloudletSimple(length, 2)));
+        dag.get(1).addDependency(dag.get(0));
+        dag.get(2).addDependency(dag.get(0));
+        dag.get(3).addDependency(dag.get(1));
+        dag.get(3).addDependency(dag.get(2));
+
+        GraphAnalysis analysis = GraphAnalysis.of(TaskGraph.of(dag));
+        assertArrayEquals(new int[] {0, 1, 3}, analysis.criticalPath());
+        assertEquals(7000, analysis.criticalPathLength, 0);
+    }
+
+    @Test
+    public void deepChainsDoNotOverflow() {
+        List<App.TaskNode> dag = DagGenerator.builder().tasks(200_000).layered(200_000, 1).seed(1).build().generate();
+        GraphAnalysis analysis = GraphAnalysis.of(TaskGraph.of(dag));
+        assertEquals(200_000, analysis.levelCount());
+        assertEquals(analysis.criticalPathLength, SimulationUtils.computeRankU(dag.get(0)), 0);
+        assertEquals(analysis.criticalPathLength, SimulationUtils.computeRankD(dag.get(dag.size() - 1)), 0);
+    }
+
+    @Test
+    public void deepCopiesShareOneAnalysis() {
+        List<App.TaskNode> dag = DagGenerator.builder().tasks(300).random(0.05).seed(4).build().generate();
+        GraphAnalysis first = GraphAnalysis.of(TaskGraph.of(dag));
+        assertSame(first, GraphAnalysis.of(TaskGraph.of(TaskDagGenerator.deepCopyDag(dag))));
+    }
+
+    @Test
+    public void cachedKeyIsNotTheGraphsOwnArrays() {
+        List<App.TaskNode> dag = DagGenerator.builder().tasks(300).random(0.05).seed(9).build().generate();
+        TaskGraph graph = TaskGraph.of(dag);
+        GraphAnalysis first = GraphAnalysis.of(graph);
+        graph.length[0] += 1;
+        assertSame(first, GraphAnalysis.of(TaskGraph.of(TaskDagGenerator.deepCopyDag(dag))));
+    }
+}
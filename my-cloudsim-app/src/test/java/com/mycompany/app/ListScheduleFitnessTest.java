@@ -0,0 +1,97 @@
+package com.mycompany.app;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.List;
+import java.util.SplittableRandom;
+
+import org.cloudbus.cloudsim.cloudlets.CloudletSimple;
+import org.cloudbus.cloudsim.vms.Vm;
+import org.cloudbus.cloudsim.vms.VmSimple;
+import org.junit.Test;
+
+public class ListScheduleFitnessTest {
+
+    @Test
+    public void childWaitsForParentOnAnotherVm() {
+        // 0 -> 2 and 1 -> 2; tasks 0 and 2 share VM 0, task 1 runs on VM 1.
+        App.TaskNode t0 = new App.TaskNode(0, new CloudletSimple(10000, 2));
+        App.TaskNode t1 = new App.TaskNode(1, new CloudletSimple(30000, 2));
+        App.TaskNode t2 = new App.TaskNode(2, new CloudletSimple(5000, 2));
+        t2.addDependency(t0);
+        t2.addDependency(t1);
+        t0.deadline = 10;
+        t1.deadline = 30;
+        t2.deadline = 30;
+
+        List<Vm> vms = List.of(new VmSimple(1000, 2), new VmSimple(1000, 2));
+        ListScheduleFitness engine = new ListScheduleFitness(TaskGraph.of(List.of(t0, t1, t2)), vms);
+
+        int[] mapping = {0, 1, 0};
+        int[] orderStart = {0, 2, 3};
+        int[] orderTasks = {0, 2, 1};
+
+        // Task 2 starts at 30 once task 1 finishes and ends at 35: five seconds past its deadline,
+        // which is its whole execution time, so its QoS term is 0.
+        double expected = FitnessEngine.combine(35, 2.0 / 3);
+        assertEquals(expected, engine.newEvaluator().evaluate(mapping, orderStart, orderTasks), 1e-9);
+    }
+
+    @Test
+    public void cloudletsOnOneVmShareItsPes() {
+        // Two 2-PE sources on one 2-PE VM run side by side at half speed; task 2 has VM 1 to itself.
+        App.TaskNode t0 = new App.TaskNode(0, new CloudletSimple(10000, 2));
+        App.TaskNode t1 = new App.TaskNode(1, new CloudletSimple(20000, 2));
+        App.TaskNode t2 = new App.TaskNode(2, new CloudletSimple(25000, 2));
+        t0.deadline = 20;
+        t1.deadline = 30;
+        t2.deadline = 25;
+
+        List<Vm> vms = List.of(new VmSimple(1000, 2), new VmSimple(1000, 2));
+        ListScheduleFitness engine = new ListScheduleFitness(TaskGraph.of(List.of(t0, t1, t2)), vms);
+        FitnessEngine.Evaluator eval = engine.newEvaluator();
+        double fit = eval.evaluate(new int[] {0, 0, 1}, new int[] {0, 2, 3}, new int[] {1, 0, 2});
+
+        // Task 0 ends at 20; task 1 then runs alone and ends at 30.
+        double[] objectives = new double[FitnessEngine.OBJECTIVES];
+        eval.objectives(objectives);
+        assertEquals(30, objectives[0], 1e-9);
+        assertEquals(FitnessEngine.combine(30, 1), fit, 1e-9);
+    }
+
+    @Test
+    public void agreesWithTheSimulation() {
+        int vms = 3;
+        List<App.TaskNode> dag = DagGenerator.builder().tasks(40).random(0.08).seed(12).build().generate();
+        DeadlineModel.analytical(vms).assign(dag);
+        TaskGraph graph = TaskGraph.of(dag);
+        SplittableRandom rnd = new SplittableRandom(5);
+
+        for (int trial = 0; trial < 3; trial++) {
+            int[] mapping = new int[graph.taskCount], perm = new int[graph.taskCount];
+            for (int t = 0; t < graph.taskCount; t++) {
+                mapping[t] = rnd.nextInt(vms);
+                perm[t] = t;
+            }
+            int[] orderStart = new int[vms + 1], orderTasks = new int[graph.taskCount];
+            PSOScheduler.groupByVm(mapping, perm, vms, orderStart, orderTasks, new int[vms]);
+            DagRun run = DagRun.of(graph);
+            for (int vm = 0; vm < vms; vm++) {
+                for (int k = orderStart[vm]; k < orderStart[vm + 1]; k++) {
+                    run.setPreferredVm(orderTasks[k], vm);
+                    run.setExecutionOrder(orderTasks[k], k - orderStart[vm]);
+                }
+            }
+
+            FitnessEngine.Evaluator eval = new ListScheduleFitness(graph, SimulationUtils.createVmList(vms)).newEvaluator();
+            eval.evaluate(mapping, orderStart, orderTasks);
+            double[] objectives = new double[FitnessEngine.OBJECTIVES];
+            eval.objectives(objectives);
+            SingleSimulationRunner.SimulationResult simulated =
+                    SingleSimulationRunner.runSimulation(run, SimulationEnvironment.of(vms, false), 1);
+
+            assertEquals(simulated.makespan(), objectives[0], 0.01 * simulated.makespan());
+            assertEquals(simulated.qosScore(), 1 - objectives[2], 0.02);
+        }
+    }
+}
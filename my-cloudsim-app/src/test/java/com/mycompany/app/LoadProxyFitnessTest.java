@@ -0,0 +1,67 @@
+package com.mycompany.app;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import org.cloudbus.cloudsim.cloudlets.CloudletSimple;
+import org.junit.Test;
+
+public class LoadProxyFitnessTest {
+
+    @Test
+    public void incrementalUpdatesMatchFullRecomputation() {
+        int taskCount = 120, vmCount = 7;
+        SplittableRandom rnd = new SplittableRandom(7);
+
+        List<App.TaskNode> dag = new ArrayList<>();
+        for (int t = 0; t < taskCount; t++) {
+            App.TaskNode node = new App.TaskNode(t, new CloudletSimple(8000 + t * 10, 2));
+            node.deadline = rnd.nextDouble(0, 400);
+            dag.add(node);
+        }
+        LoadProxyFitness fitness = new LoadProxyFitness(TaskGraph.of(dag), vmCount);
+        LoadProxyFitness.State state = fitness.newEvaluator();
+
+        int[] mapping = new int[taskCount];
+        for (int t = 0; t < taskCount; t++) mapping[t] = rnd.nextInt(vmCount);
+        int[] start = new int[vmCount + 1];
+        int[] tasks = new int[taskCount];
+        group(mapping, vmCount, start, tasks);
+
+        double[] scratch = new double[vmCount];
+        assertEquals(fitness.evaluate(mapping, start, tasks, scratch), state.evaluate(mapping, start, tasks), 1e-9);
+
+        int[] changed = new int[taskCount];
+        int[] changedFrom = new int[taskCount];
+        for (int round = 0; round < 500; round++) {
+            // Mostly small moves, with the occasional large one that takes the full-evaluation path.
+            int moves = round % 50 == 0 ? taskCount / 2 : 1 + rnd.nextInt(5);
+            int count = 0;
+            boolean[] moved = new boolean[taskCount];
+            for (int m = 0; m < moves; m++) {
+                int t = rnd.nextInt(taskCount), to = rnd.nextInt(vmCount);
+                if (mapping[t] == to || moved[t]) continue;
+                moved[t] = true;
+                changed[count] = t;
+                changedFrom[count++] = mapping[t];
+                mapping[t] = to;
+            }
+            group(mapping, vmCount, start, tasks);
+
+            double full = fitness.evaluate(mapping, start, tasks, scratch);
+            assertEquals("round " + round, full, state.update(mapping, start, tasks, changed, changedFrom, count), 1e-9);
+        }
+    }
+
+    private static void group(int[] mapping, int vmCount, int[] start, int[] tasks) {
+        Arrays.fill(start, 0);
+        for (int vm : mapping) start[vm + 1]++;
+        for (int vm = 0; vm < vmCount; vm++) start[vm + 1] += start[vm];
+        int[] cursor = Arrays.copyOf(start, vmCount);
+        for (int t = 0; t < mapping.length; t++) tasks[cursor[mapping[t]]++] = t;
+    }
+}
@@ -0,0 +1,97 @@
+package com.mycompany.app;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import org.junit.Test;
+
+public class LocalSearchTest {
+
+    @Test
+    public void movesKeepOrderAndFitnessInStep() {
+        List<App.TaskNode> dag = DagGenerator.builder().tasks(150).random(0.03).seed(4).build().generate();
+        DeadlineModel.analytical(6).assign(dag);
+        TaskGraph g = TaskGraph.of(dag);
+        int vmCount = 6;
+        FitnessEngine fitness = FitnessEngine.LOAD_PROXY.create(g, vmCount);
+        SplittableRandom rnd = new SplittableRandom(9);
+
+        int[] mapping = new int[g.taskCount], perm = new int[g.taskCount];
+        for (int t = 0; t < g.taskCount; t++) {
+            mapping[t] = rnd.nextInt(vmCount);
+            perm[t] = t;
+        }
+        int[] start = new int[vmCount + 1], order = new int[g.taskCount];
+        PSOScheduler.groupByVm(mapping, perm, vmCount, start, order, new int[vmCount]);
+        FitnessEngine.Evaluator eval = fitness.newEvaluator();
+        LocalSearch.Position position = new LocalSearch.Position(g, vmCount, mapping, start, order, eval);
+        position.reset(eval.evaluate(mapping, start, order));
+
+        for (int round = 0; round < 400; round++) {
+            int[] mappingBefore = mapping.clone(), startBefore = start.clone(), orderBefore = order.clone();
+            double before = position.fitness();
+            int a = rnd.nextInt(g.taskCount), b = rnd.nextInt(g.taskCount), vm = rnd.nextInt(vmCount);
+            boolean kept = mapping[a] != mapping[b] && rnd.nextBoolean()
+                    ? position.trySwap(a, b)
+                    : position.tryMove(a, vm, rnd.nextInt(position.taskCount(vm) + (vm == mapping[a] ? 0 : 1)));
+
+            if (kept) {
+                assertTrue(position.fitness() < before);
+            } else {
+                assertArrayEquals(mappingBefore, mapping);
+                assertArrayEquals(startBefore, start);
+                assertArrayEquals(orderBefore, order);
+            }
+            for (int v = 0; v < vmCount; v++)
+                for (int k = start[v]; k < start[v + 1]; k++) assertEquals(v, mapping[order[k]]);
+            int[] sorted = order.clone();
+            Arrays.sort(sorted);
+            assertArrayEquals(perm, sorted);
+            assertEquals(fitness.newEvaluator().evaluate(mapping, start, order), position.fitness(), 1e-9);
+        }
+    }
+
+    @Test
+    public void memeticRunBeatsPlainPsoWithTheSameSwarm() {
+        List<App.TaskNode> dag = DagGenerator.builder().tasks(200).random(0.02).seed(8).build().generate();
+        DeadlineModel.analytical(8).assign(dag);
+        TaskGraph g = TaskGraph.of(dag);
+        PSOConfig.Builder base = PSOConfig.builder().swarmSize(30).maxIterations(20).seed(3)
+                .progress(ProgressMonitor.off()).verifyIncremental(true);
+
+        PSOScheduler plain = new PSOScheduler(base.build());
+        plain.schedule(g, 8);
+        PSOScheduler memetic = new PSOScheduler(base
+                .localSearch(LocalSearch.loadBalance(50).then(LocalSearch.criticalPath()), 3).build());
+        memetic.schedule(g, 8);
+
+        List<Double> curve = memetic.getFitnessHistory();
+        for (int i = 1; i < curve.size(); i++) assertTrue(curve.get(i) <= curve.get(i - 1));
+        assertTrue(memetic.getRunStats().bestFitness() < plain.getRunStats().bestFitness());
+        assertTrue(memetic.getRunStats().evaluations() > plain.getRunStats().evaluations());
+    }
+
+    @Test
+    public void refinementCountsAgainstTheEvaluationBudget() {
+        List<App.TaskNode> dag = DagGenerator.builder().tasks(200).random(0.02).seed(8).build().generate();
+        DeadlineModel.analytical(8).assign(dag);
+        PSOScheduler pso = new PSOScheduler(PSOConfig.builder().swarmSize(20).seed(3).progress(ProgressMonitor.off())
+                .stopping(StoppingCriteria.maxIterations(1000).evaluationBudget(3000))
+                .localSearch(LocalSearch.loadBalance(20), 4).build());
+        pso.schedule(TaskGraph.of(dag), 8);
+
+        PSOScheduler.RunStats stats = pso.getRunStats();
+        assertEquals(StoppingCriteria.Reason.EVALUATION_BUDGET, stats.stopReason());
+        assertTrue(stats.evaluations() + " evaluations", stats.evaluations() <= 3000);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void multiObjectiveModeRejectsLocalSearch() {
+        PSOConfig.builder().multiObjective(20).localSearch(LocalSearch.criticalPath(), 2).build();
+    }
+}
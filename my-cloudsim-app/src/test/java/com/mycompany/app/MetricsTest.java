@@ -0,0 +1,60 @@
+package com.mycompany.app;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.Test;
+
+public class MetricsTest {
+
+    @Test
+    public void timersCountSectionsAndAllocations() {
+        Metrics.Timer timer = Metrics.timer("test_section", "A section of MetricsTest", true);
+        long before = timer.count(), bytes = timer.allocatedBytes();
+        long[][] keep = new long[4][];
+        for (int i = 0; i < keep.length; i++) {
+            try (Metrics.Span span = timer.start()) {
+                keep[i] = new long[100_000];
+            }
+        }
+        assertEquals(before + keep.length, timer.count());
+        assertTrue(timer.maxNanos() > 0 && timer.totalNanos() >= timer.maxNanos());
+        if (timer.trackAllocations) assertTrue(timer.allocatedBytes() - bytes >= keep.length * 800_000L);
+        assertEquals(timer, Metrics.timer("test_section", "ignored"));
+    }
+
+    @Test
+    public void psoRunIsBrokenDown() throws Exception {
+        List<App.TaskNode> dag = DagGenerator.builder().tasks(60).random(0.05).seed(3).build().generate();
+        DeadlineModel.analytical(4).assign(dag);
+        Metrics.reset();
+
+        PSOScheduler pso = new PSOScheduler(PSOConfig.builder().swarmSize(10).maxIterations(12).seed(1)
+                .progress(ProgressMonitor.off()).build());
+        DagRun run = pso.schedule(TaskGraph.of(dag), 4);
+        SingleSimulationRunner.runSimulation(run, 4, 1);
+
+        assertEquals(12, PSOScheduler.ITERATION.count());
+        assertEquals(12, PSOScheduler.EVALUATE.count());
+        assertEquals(120, PSOScheduler.EVALUATIONS.get());
+        assertEquals(12, PSOScheduler.MOVE.count());
+        assertEquals(1, SingleSimulationRunner.BUILD.count());
+        assertEquals(1, SingleSimulationRunner.RUN.count());
+        assertTrue(DagRun.COPY.count() >= 1);
+        assertTrue(Metrics.evaluationsPerSecond() > 0);
+
+        Path dir = Files.createTempDirectory("metrics");
+        Metrics.export(dir);
+        String prom = Files.readString(dir.resolve("metrics.prom"));
+        assertTrue(prom.contains("# TYPE scheduler_pso_iteration_seconds summary\n"));
+        assertTrue(prom.contains("scheduler_pso_iteration_seconds_count 12\n"));
+        assertTrue(prom.contains("scheduler_pso_fitness_evaluations_total 120\n"));
+        String json = Files.readString(dir.resolve("metrics.json"));
+        assertTrue(json.contains("\"pso_fitness_evaluations\": 120"));
+        assertTrue(json.contains("\"simulation_run\": {\"count\": 1,"));
+    }
+}
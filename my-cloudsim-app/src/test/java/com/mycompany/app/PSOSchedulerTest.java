@@ -0,0 +1,106 @@
+package com.mycompany.app;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.Test;
+
+public class PSOSchedulerTest {
+
+    private static final int VMS = 5;
+
+    private static TaskGraph graph() {
+        List<App.TaskNode> dag = DagGenerator.builder().tasks(120).random(0.04).seed(6).build().generate();
+        DeadlineModel.analytical(VMS).assign(dag);
+        return TaskGraph.of(dag);
+    }
+
+    private static PSOConfig.Builder config() {
+        return PSOConfig.builder().swarmSize(24).maxIterations(15).seed(21).progress(ProgressMonitor.off());
+    }
+
+    private static void assertSameRun(PSOScheduler expected, DagRun expectedRun, PSOScheduler actual, DagRun actualRun) {
+        assertEquals(expected.getFitnessHistory(), actual.getFitnessHistory());
+        assertEquals(expected.getRunStats().evaluations(), actual.getRunStats().evaluations());
+        assertArrayEquals(expectedRun.preferredVm, actualRun.preferredVm);
+        assertArrayEquals(expectedRun.executionOrder, actualRun.executionOrder);
+    }
+
+    private static void assertThreadCountDoesNotMatter(PSOConfig.Builder base) {
+        TaskGraph graph = graph();
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            PSOScheduler serial = new PSOScheduler(base.executor(pool, 1).build());
+            DagRun expected = serial.schedule(graph, VMS);
+            for (int parallelism : new int[] {2, 3, 4}) {
+                PSOScheduler parallel = new PSOScheduler(base.executor(pool, parallelism).build());
+                assertSameRun(serial, expected, parallel, parallel.schedule(graph, VMS));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    public void sameSeedGivesTheSameRunForAnyThreadCount() {
+        assertThreadCountDoesNotMatter(config());
+    }
+
+    @Test
+    public void memeticRunIsIndependentOfTheThreadCount() {
+        assertThreadCountDoesNotMatter(config().localSearch(LocalSearch.loadBalance(20), 5));
+    }
+
+    @Test
+    public void seededIslandRunIsRepeatable() {
+        TaskGraph graph = graph();
+        PSOConfig config = config().maxIterations(30).islands(3, 4).build();
+        PSOScheduler first = new PSOScheduler(config), second = new PSOScheduler(config);
+        DagRun expected = first.schedule(graph, VMS);
+        assertSameRun(first, expected, second, second.schedule(graph, VMS));
+        assertEquals(first.getIslandHistories(), second.getIslandHistories());
+    }
+
+    @Test
+    public void everyIslandKeepsItsOwnHistory() {
+        PSOScheduler pso = new PSOScheduler(config().maxIterations(30).islands(3, 4).build());
+        long before = PSOScheduler.EVALUATIONS.get();
+        pso.schedule(graph(), VMS);
+
+        List<List<Double>> islands = pso.getIslandHistories();
+        assertEquals(3, islands.size());
+        assertNotEquals(islands.get(0), islands.get(1));
+        assertNotEquals(islands.get(1), islands.get(2));
+        List<Double> merged = pso.getFitnessHistory();
+        for (List<Double> curve : islands) {
+            assertEquals(30, curve.size());
+            for (int i = 1; i < curve.size(); i++) assertTrue(curve.get(i) <= curve.get(i - 1));
+        }
+        for (int i = 0; i < merged.size(); i++) {
+            double min = Double.MAX_VALUE;
+            for (List<Double> curve : islands) min = Math.min(min, curve.get(i));
+            assertEquals(min, merged.get(i), 0);
+        }
+
+        // Accepted migrants are evaluated once more; the metric counts them like the run does,
+        // everything but the initial swarm.
+        long iterations = 30L * 24;
+        assertTrue(pso.getRunStats().evaluations() > 24 + iterations);
+        if (Metrics.ENABLED) assertEquals(pso.getRunStats().evaluations() - 24, PSOScheduler.EVALUATIONS.get() - before);
+    }
+
+    @Test
+    public void migrantOnlyReplacesAWorseParticle() {
+        double[] fitness = {3, 9, 4, 9, 1};
+        assertEquals(1, PSOScheduler.immigrationSlot(fitness.length, i -> fitness[i], 8.5));
+        assertEquals(-1, PSOScheduler.immigrationSlot(fitness.length, i -> fitness[i], 9));
+        assertEquals(-1, PSOScheduler.immigrationSlot(fitness.length, i -> fitness[i], 12));
+        assertEquals(4, PSOScheduler.immigrationSlot(fitness.length, i -> -fitness[i], -2));
+    }
+}
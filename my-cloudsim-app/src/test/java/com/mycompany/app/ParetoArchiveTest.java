@@ -0,0 +1,73 @@
+package com.mycompany.app;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+public class ParetoArchiveTest {
+
+    private static final int[] MAPPING = {0}, START = {0, 1}, ORDER = {0};
+
+    private static boolean offer(ParetoArchive archive, double... objectives) {
+        return archive.offer(objectives, MAPPING, START, ORDER);
+    }
+
+    @Test
+    public void keepsOnlyNonDominatedPoints() {
+        ParetoArchive archive = new ParetoArchive(2, 10, 1, 1);
+        assertTrue(offer(archive, 4, 4));
+        assertTrue(offer(archive, 1, 6));
+        assertFalse(offer(archive, 5, 5));
+        assertFalse(offer(archive, 4, 4));
+        assertTrue(offer(archive, 2, 2));       // dominates (4, 4)
+        assertEquals(2, archive.size());
+        assertEquals(3, archive.objective(0, 0) + archive.objective(1, 0), 0);
+    }
+
+    @Test
+    public void evictsTheMostCrowdedMember() {
+        ParetoArchive archive = new ParetoArchive(2, 3, 1, 1);
+        offer(archive, 0, 10);
+        offer(archive, 10, 0);
+        offer(archive, 2, 8);
+        // (5, 5) fills the gap in the middle, so (2, 8) becomes the most crowded and goes.
+        assertTrue(offer(archive, 5, 5));
+        assertEquals(3, archive.size());
+        double[] first = new double[3];
+        for (int i = 0; i < 3; i++) first[i] = archive.objective(i, 0);
+        Arrays.sort(first);
+        assertArrayEquals(new double[] {0, 5, 10}, first, 0);
+        // Next to (5, 5) the candidate itself is the most crowded member.
+        assertFalse(offer(archive, 5.1, 4.9));
+        assertEquals(3, archive.size());
+    }
+
+    @Test
+    public void multiObjectiveRunReturnsANonDominatedFront() {
+        List<App.TaskNode> dag = DagGenerator.builder().tasks(80).random(0.05).seed(5).build().generate();
+        DeadlineModel.analytical(5).assign(dag);
+        PSOScheduler pso = new PSOScheduler(PSOConfig.builder().swarmSize(20).maxIterations(25).seed(2)
+                .multiObjective(30).progress(ProgressMonitor.off()).build());
+        DagRun best = pso.schedule(TaskGraph.of(dag), 5);
+
+        List<PSOScheduler.ParetoPoint> front = pso.getParetoFront();
+        assertTrue(front.size() > 1 && front.size() <= 30);
+        for (int i = 0; i < front.size(); i++) {
+            PSOScheduler.ParetoPoint a = front.get(i);
+            if (i > 0) assertTrue(front.get(i - 1).makespan() <= a.makespan());
+            for (PSOScheduler.ParetoPoint b : front) {
+                boolean dominated = b.makespan() <= a.makespan() && b.energy() <= a.energy() && b.qos() >= a.qos()
+                        && (b.makespan() < a.makespan() || b.energy() < a.energy() || b.qos() > a.qos());
+                assertFalse(dominated);
+            }
+            for (int t = 0; t < 80; t++) assertTrue(a.run().getPreferredVm(t) < 5);
+        }
+        assertEquals(80, best.taskCount());
+    }
+}
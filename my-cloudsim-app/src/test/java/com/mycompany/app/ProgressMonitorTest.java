@@ -0,0 +1,29 @@
+package com.mycompany.app;
+
+import static org.junit.Assert.assertArrayEquals;
+
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.Test;
+
+public class ProgressMonitorTest {
+
+    @Test
+    public void concurrentRunsShareOneConfig() throws Exception {
+        PSOConfig config = PSOConfig.builder().swarmSize(12).maxIterations(15).seed(4)
+                .progress(ProgressMonitor.everyN(5).async()).build();
+        TaskGraph small = TaskGraph.of(DagGenerator.builder().tasks(40).random(0.05).seed(1).build().generate());
+        TaskGraph large = TaskGraph.of(DagGenerator.builder().tasks(90).random(0.05).seed(2).build().generate());
+
+        CompletableFuture<DagRun> a = CompletableFuture.supplyAsync(() -> new PSOScheduler(config).schedule(small, 3));
+        CompletableFuture<DagRun> b = CompletableFuture.supplyAsync(() -> new PSOScheduler(config).schedule(large, 5));
+        assertArrayEquals(vms(new PSOScheduler(config).schedule(small, 3)), vms(a.get()));
+        assertArrayEquals(vms(new PSOScheduler(config).schedule(large, 5)), vms(b.get()));
+    }
+
+    private static int[] vms(DagRun run) {
+        int[] vms = new int[run.taskCount()];
+        for (int t = 0; t < vms.length; t++) vms[t] = run.getPreferredVm(t);
+        return vms;
+    }
+}
@@ -0,0 +1,112 @@
+package com.mycompany.app;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import org.cloudbus.cloudsim.cloudlets.CloudletSimple;
+import org.junit.Test;
+
+public class SingleSimulationRunnerTest {
+
+    @Test
+    public void dispatchOrderMatchesRepeatedReadyScan() {
+        SplittableRandom rnd = new SplittableRandom(3);
+        for (int round = 0; round < 50; round++) {
+            // Few distinct lengths and orders, so the tie-breaking by list position is exercised.
+            List<App.TaskNode> dag = randomDag(rnd, 1 + rnd.nextInt(80));
+            Collections.shuffle(dag, new java.util.Random(round));
+            dag.forEach(SimulationUtils::computeRankU);
+            dag.forEach(SimulationUtils::computeRankD);
+            assertEquals(scanOrder(dag, Comparator.comparingDouble(App.TaskNode::getCPOPScore).reversed()), ids(dag));
+
+            for (App.TaskNode node : dag) node.setExecutionOrder(rnd.nextInt(5));
+            dag.sort(Comparator.comparingInt(App.TaskNode::getExecutionOrder));
+            assertEquals(scanOrder(dag, Comparator.comparingInt(App.TaskNode::getExecutionOrder)), ids(dag));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void dispatchOrderRejectsCycles() {
+        SplittableRandom rnd = new SplittableRandom(5);
+        List<App.TaskNode> dag = randomDag(rnd, 10);
+        dag.get(2).addDependency(dag.get(9));
+        dag.get(9).addDependency(dag.get(2));
+        SingleSimulationRunner.dispatchOrder(DagRun.adopt(TaskGraph.of(dag), dag));
+    }
+
+    @Test
+    public void seededRunsRepeat() {
+        List<App.TaskNode> a = TaskDagGenerator.generateRandomDAG(60, DeadlineModel.SIMULATED, 9);
+        List<App.TaskNode> b = TaskDagGenerator.generateRandomDAG(60, DeadlineModel.SIMULATED, 9);
+        for (int t = 0; t < a.size(); t++) assertEquals(a.get(t).deadline, b.get(t).deadline, 0);
+
+        // No preferred VMs, so every task is placed by the seeded random pick.
+        TaskGraph graph = TaskGraph.of(a);
+        assertEquals(SingleSimulationRunner.runSimulation(DagRun.of(graph), 5, 4),
+                SingleSimulationRunner.runSimulation(DagRun.of(graph), 5, 4));
+    }
+
+    @Test
+    public void environmentIsSizedToTheVms() {
+        assertEquals(1, SimulationEnvironment.of(1).hostCount);
+        assertEquals(2, SimulationEnvironment.of(10).hostCount);
+        assertEquals(13, SimulationEnvironment.of(100).hostCount);
+        assertSame(SimulationEnvironment.of(20, false), SimulationEnvironment.of(20, false));
+        assertNotSame(SimulationEnvironment.of(20), SimulationEnvironment.of(20, false));
+
+        TaskGraph graph = TaskGraph.of(TaskDagGenerator.generateRandomDAG(30, DeadlineModel.analytical(4), 2));
+        SingleSimulationRunner.SimulationResult withEnergy = SingleSimulationRunner.runSimulation(DagRun.of(graph), 4, 7);
+        SingleSimulationRunner.SimulationResult without =
+                SingleSimulationRunner.runSimulation(DagRun.of(graph), SimulationEnvironment.of(4, false), 7);
+        assertTrue(Double.isNaN(without.energy()));
+        assertEquals(withEnergy.makespan(), without.makespan(), 0);
+        assertEquals(withEnergy.qosScore(), without.qosScore(), 0);
+    }
+
+    private static List<Integer> ids(List<App.TaskNode> dag) {
+        List<Integer> ids = new ArrayList<>();
+        for (int t : SingleSimulationRunner.dispatchOrder(DagRun.adopt(TaskGraph.of(dag), dag))) ids.add(t);
+        return ids;
+    }
+
+    // The dispatch loop runSimulation used before the ready queue: rescan the DAG for ready tasks
+    // and submit each batch sorted by priority.
+    private static List<Integer> scanOrder(List<App.TaskNode> dag, Comparator<App.TaskNode> priority) {
+        List<Integer> order = new ArrayList<>();
+        Set<App.TaskNode> scheduled = new HashSet<>();
+        while (scheduled.size() < dag.size()) {
+            for (App.TaskNode node : dag.stream()
+                    .filter(n -> !scheduled.contains(n))
+                    .filter(n -> n.isReady(scheduled))
+                    .sorted(priority)
+                    .toList()) {
+                order.add(node.id);
+                scheduled.add(node);
+            }
+        }
+        return order;
+    }
+
+    private static List<App.TaskNode> randomDag(SplittableRandom rnd, int taskCount) {
+        List<App.TaskNode> dag = new ArrayList<>();
+        for (int t = 0; t < taskCount; t++) {
+            App.TaskNode node = new App.TaskNode(t, new CloudletSimple(1000 * (1 + rnd.nextInt(3)), 2));
+            for (int k = rnd.nextInt(Math.min(t, 4) + 1); k > 0; k--) {
+                App.TaskNode parent = dag.get(rnd.nextInt(t));
+                if (!node.parents.contains(parent)) node.addDependency(parent);
+            }
+            dag.add(node);
+        }
+        return dag;
+    }
+}
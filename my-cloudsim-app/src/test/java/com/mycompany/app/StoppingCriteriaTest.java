@@ -0,0 +1,81 @@
+package com.mycompany.app;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.Test;
+
+public class StoppingCriteriaTest {
+
+    private static final StoppingCriteria CAP = StoppingCriteria.maxIterations(10);
+
+    @Test
+    public void iterationCapAndFirstIteration() {
+        assertNull(CAP.evaluationBudget(1).check(List.of(), 0, 50, 50));  // one iteration always runs
+        assertNull(CAP.check(List.of(5.0, 5.0, 5.0, 5.0, 5.0, 5.0, 5.0, 5.0, 5.0), 0, 0, 10));
+        assertEquals(StoppingCriteria.Reason.MAX_ITERATIONS,
+                CAP.check(List.of(5.0, 5.0, 5.0, 5.0, 5.0, 5.0, 5.0, 5.0, 5.0, 5.0), 0, 0, 10));
+    }
+
+    @Test
+    public void noImprovementNeedsAFullWindowWithoutProgress() {
+        StoppingCriteria c = CAP.noImprovementFor(3);
+        assertNull(c.check(List.of(4.0, 4.0, 4.0), 0, 0, 10));  // window not filled yet
+        assertEquals(StoppingCriteria.Reason.NO_IMPROVEMENT, c.check(List.of(4.0, 4.0, 4.0, 4.0), 0, 0, 10));
+        assertNull(c.check(List.of(4.0, 4.0, 4.0, 3.9), 0, 0, 10));  // improved inside the window
+        assertNull(c.check(List.of(4.0, 3.9, 3.9, 3.9), 0, 0, 10));
+        assertEquals("the improvement just left the window", StoppingCriteria.Reason.NO_IMPROVEMENT,
+                c.check(List.of(4.0, 3.9, 3.9, 3.9, 3.9), 0, 0, 10));
+    }
+
+    @Test
+    public void convergenceComparesTheRelativeGainOverTheWindow() {
+        StoppingCriteria c = CAP.relativeImprovementBelow(0.01, 2);
+        assertNull(c.check(List.of(100.0, 100.0), 0, 0, 10));  // window not filled yet
+        assertEquals(StoppingCriteria.Reason.CONVERGED, c.check(List.of(100.0, 99.8, 99.2), 0, 0, 10));
+        assertNull(c.check(List.of(100.0, 99.5, 99.0), 0, 0, 10));  // a gain of exactly the threshold goes on
+        assertNull(c.check(List.of(100.0, 50.0, 49.9, 40.0), 0, 0, 10));  // only the last window counts
+        assertEquals(StoppingCriteria.Reason.CONVERGED, c.check(List.of(100.0, 50.0, 49.9, 49.9), 0, 0, 10));
+        assertEquals("a flat zero curve has converged too", StoppingCriteria.Reason.CONVERGED,
+                c.check(List.of(0.0, 0.0, 0.0), 0, 0, 10));
+    }
+
+    @Test
+    public void timeBudgetStopsOnceElapsed() {
+        StoppingCriteria c = CAP.timeBudget(Duration.ofMillis(5));
+        assertNull(c.check(List.of(1.0), 4_999_999, 0, 10));
+        assertEquals(StoppingCriteria.Reason.TIME_BUDGET, c.check(List.of(1.0), 5_000_000, 0, 10));
+    }
+
+    @Test
+    public void evaluationBudgetLooksOneIterationAhead() {
+        StoppingCriteria c = CAP.evaluationBudget(100);
+        assertNull(c.check(List.of(1.0), 0, 80, 20));  // the next iteration ends exactly on the budget
+        assertEquals(StoppingCriteria.Reason.EVALUATION_BUDGET, c.check(List.of(1.0), 0, 81, 20));
+        assertNull(c.check(List.of(1.0), 0, 81, 19));  // a cheaper iteration still fits
+    }
+
+    @Test
+    public void budgetsWinOverHistoryCriteria() {
+        StoppingCriteria c = CAP.noImprovementFor(1).relativeImprovementBelow(0.5, 1)
+                .timeBudget(Duration.ofNanos(10)).evaluationBudget(100);
+        List<Double> flat = List.of(2.0, 2.0);
+        assertEquals(StoppingCriteria.Reason.NO_IMPROVEMENT, c.check(flat, 0, 0, 10));
+        assertEquals(StoppingCriteria.Reason.TIME_BUDGET, c.check(flat, 10, 0, 10));
+        assertEquals(StoppingCriteria.Reason.EVALUATION_BUDGET, c.check(flat, 10, 95, 10));
+        assertEquals(StoppingCriteria.Reason.MAX_ITERATIONS, StoppingCriteria.maxIterations(2).evaluationBudget(1).check(flat, 0, 95, 10));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void windowMustBePositive() {
+        CAP.noImprovementFor(0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void thresholdMustBePositive() {
+        CAP.relativeImprovementBelow(0, 5);
+    }
+}
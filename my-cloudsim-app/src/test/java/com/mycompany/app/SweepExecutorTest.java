@@ -0,0 +1,69 @@
+package com.mycompany.app;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+public class SweepExecutorTest {
+
+    @Test
+    public void resultsAndSeedsFollowCellOrderForAnyThreadCount() {
+        List<Integer> cells = new ArrayList<>();
+        for (int i = 0; i < 12; i++) cells.add(i);
+
+        List<String> expected = null;
+        for (int threads : new int[] {1, 4}) {
+            try (SweepExecutor sweep = new SweepExecutor(threads, 42)) {
+                // Later cells finish first.
+                List<String> results = sweep.run(cells, (cell, seed) -> {
+                    Thread.sleep(2L * (12 - cell));
+                    return cell + ":" + seed;
+                });
+                for (int i = 0; i < cells.size(); i++) assertTrue(results.get(i).startsWith(i + ":"));
+                if (expected == null) expected = results;
+                assertEquals(expected, results);
+            }
+        }
+    }
+
+    @Test
+    public void streamsGiveTheSameIndexUnrelatedSeeds() {
+        List<Integer> cells = List.of(0, 1, 2, 3);
+        try (SweepExecutor sweep = new SweepExecutor(2, 42)) {
+            List<Long> cellSeeds = sweep.run(cells, (cell, seed) -> seed);
+            List<Long> dagSeeds = sweep.run(SweepExecutor.DAG_STREAM, cells, (cell, seed) -> seed);
+            for (int i = 0; i < cells.size(); i++) {
+                assertEquals(SweepExecutor.seedFor(42, i), (long) cellSeeds.get(i));
+                assertFalse(cellSeeds.contains(dagSeeds.get(i)));
+            }
+        }
+    }
+
+    @Test
+    public void failureCancelsTheRemainingCells() {
+        List<Integer> cells = new ArrayList<>();
+        for (int i = 0; i < 50; i++) cells.add(i);
+        AtomicInteger started = new AtomicInteger();
+
+        try (SweepExecutor sweep = new SweepExecutor(2, 1)) {
+            sweep.run(cells, (cell, seed) -> {
+                started.incrementAndGet();
+                if (cell == 3) throw new IllegalArgumentException("boom");
+                Thread.sleep(20);
+                return cell;
+            });
+            fail("expected the cell failure to propagate");
+        } catch (IllegalStateException e) {
+            assertTrue(e.getMessage().contains("3"));
+            assertTrue(e.getCause() instanceof IllegalArgumentException);
+        }
+        assertTrue(started.get() < cells.size());
+    }
+}
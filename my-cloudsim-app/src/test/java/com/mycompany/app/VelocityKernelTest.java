@@ -0,0 +1,50 @@
+package com.mycompany.app;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assume.assumeTrue;
+
+import java.util.SplittableRandom;
+
+import org.junit.Test;
+
+public class VelocityKernelTest {
+
+    @Test
+    public void vectorKernelMatchesScalarKernel() {
+        assumeTrue(VelocityKernel.vectorAvailable());
+        VelocityKernel scalar = VelocityKernel.scalar();
+        VelocityKernel vector = VelocityKernel.vectorized();
+
+        SplittableRandom rnd = new SplittableRandom(11);
+        for (int vmCount : new int[] {1, 3, 10, 20, 30}) {
+            double[] a = new double[vmCount], b = new double[vmCount];
+            double[] wa = new double[vmCount], wb = new double[vmCount];
+            for (int v = 0; v < vmCount; v++) a[v] = b[v] = rnd.nextDouble(-1, 1);
+
+            for (int step = 0; step < 200; step++) {
+                int pBest = rnd.nextInt(vmCount), gBest = rnd.nextInt(vmCount);
+                double r1 = rnd.nextDouble(), r2 = rnd.nextDouble();
+                double u = rnd.nextDouble();
+                int va = scalar.update(a, 0, vmCount, pBest, gBest, 0.7, 1.4, 1.1, 1.0, r1, r2, u, wa);
+                int vb = vector.update(b, 0, vmCount, pBest, gBest, 0.7, 1.4, 1.1, 1.0, r1, r2, u, wb);
+
+                assertArrayEquals(a, b, 1e-12);
+                assertArrayEquals(wa, wb, 1e-9);
+                // exp is not bit-identical across the two paths, so a target on a bucket edge may flip.
+                if (!nearEdge(wa, u)) assertEquals(va, vb);
+            }
+        }
+    }
+
+    private static boolean nearEdge(double[] weights, double u) {
+        double sum = 0;
+        for (double w : weights) sum += w;
+        double cum = 0;
+        for (double w : weights) {
+            cum += w;
+            if (Math.abs(cum - u * sum) < 1e-9 * sum) return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,54 @@
+package com.mycompany.app;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+// Vector API version of VelocityKernel.Scalar. Only loaded through VelocityKernel.vectorized(), so
+// the rest of the scheduler runs without the incubator module. Vector exp is not bit-identical to
+// Math.exp, so a seed can pick a different VM than the scalar kernel in rare near-ties.
+final class VectorVelocityKernel implements VelocityKernel {
+
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+    @Override
+    public int update(double[] velocity, int row, int vmCount, int pBestVm, int gBestVm,
+                      double w, double c1, double c2, double chi,
+                      double r1, double r2, double u, double[] weights) {
+        double decay = chi * w;
+        int lanes = SPECIES.length();
+        int bound = SPECIES.loopBound(vmCount);
+
+        int v = 0;
+        for (; v < bound; v += lanes) {
+            DoubleVector.fromArray(SPECIES, velocity, row + v).mul(decay).intoArray(velocity, row + v);
+        }
+        for (; v < vmCount; v++) velocity[row + v] *= decay;
+        velocity[row + pBestVm] += chi * c1 * r1;
+        if (gBestVm >= 0) velocity[row + gBestVm] += chi * c2 * r2;
+
+        double sum = 0;
+        for (v = 0; v < bound; v += lanes) {
+            DoubleVector e = DoubleVector.fromArray(SPECIES, velocity, row + v).lanewise(VectorOperators.EXP);
+            e.intoArray(weights, v);
+            sum += e.reduceLanes(VectorOperators.ADD);
+        }
+        for (; v < vmCount; v++) {
+            weights[v] = Math.exp(velocity[row + v]);
+            sum += weights[v];
+        }
+
+        // Skip whole vectors that stay below the target, then walk the hit vector lane by lane.
+        double target = u * sum, cum = 0;
+        for (v = 0; v < bound; v += lanes) {
+            double block = DoubleVector.fromArray(SPECIES, weights, v).reduceLanes(VectorOperators.ADD);
+            if (cum + block >= target) break;
+            cum += block;
+        }
+        for (; v < vmCount; v++) {
+            cum += weights[v];
+            if (target <= cum) return v;
+        }
+        return -1;
+    }
+}